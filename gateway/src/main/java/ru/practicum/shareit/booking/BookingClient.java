@@ -6,11 +6,14 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exception.ValidationException;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -44,15 +47,54 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> updateBatchByOwner(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> getWithStatusById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getByUserId(Long userId, BookingState state) {
-        return get("?state=" + state, userId);
+    public ResponseEntity<Object> getByUserId(Long userId, BookingState state, Integer from, Integer size,
+                                              String cursor) {
+        return getPage("", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> getByOwnerId(Long userId, BookingState state, Integer from, Integer size,
+                                               String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> countByUserId(Long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> countByOwnerId(Long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportByUserId(Long userId, BookingState state) {
+        return stream("/export?state={state}", userId, Map.of("state", state.name()));
     }
 
-    public ResponseEntity<Object> getByOwnerId(Long userId, BookingState state) {
-        return get("/owner?state=" + state, userId);
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(Long userId, BookingState state) {
+        return stream("/owner/export?state={state}", userId, Map.of("state", state.name()));
+    }
+
+    private ResponseEntity<Object> getPage(String path, Long userId, BookingState state, Integer from, Integer size,
+                                           String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        String query = "?state={state}&from={from}";
+        if (size != null) {
+            parameters.put("size", size);
+            query += "&size={size}";
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get(path + query, userId, parameters);
     }
 }
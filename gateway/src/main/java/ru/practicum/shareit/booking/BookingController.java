@@ -2,12 +2,19 @@ package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
 import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -48,6 +55,21 @@ public class BookingController {
         return bookingClient.updateByOwner(ownerId, bookingId, approved);
     }
 
+    /**
+     * Пакетно подтверждает или отклоняет бронирования владельцем.
+     *
+     * @param ownerId идентификатор владельца вещей
+     * @param decisions список решений по бронированиям (не более 100)
+     * @return ResponseEntity с объектом, представляющим результат по каждому бронированию
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBatchByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                     @RequestBody @NotEmpty @Size(max = 100)
+                                                     List<@Valid BookingDecisionDto> decisions) {
+        log.info("Пакетное обновление {} бронирований владельцем {}", decisions.size(), ownerId);
+        return bookingClient.updateBatchByOwner(ownerId, decisions);
+    }
+
     /**
      * Получает данные о бронировании по его идентификатору.
      *
@@ -67,17 +89,23 @@ public class BookingController {
      *
      * @param userId идентификатор пользователя, запрашивающего данные о бронировании
      * @param stateParam состояние бронирования
+     * @param from индекс первого элемента страницы
+     * @param size размер страницы (без него возвращаются все бронирования, начиная с from)
+     * @param cursor курсор следующей страницы из заголовка X-Next-Cursor предыдущего ответа
      * @return ResponseEntity с объектом, представляющим результат получения данных о бронировании
      */
     @GetMapping
     public ResponseEntity<Object> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @RequestParam(value = "state",
-                                                      defaultValue = "ALL", required = false) String stateParam) {
+                                                      defaultValue = "ALL", required = false) String stateParam,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                              @Positive @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() ->
                         new ValidationException("Неизвестное состояние бронирования: " + stateParam));
         log.info("Получение всех бронирований пользователя{}, в состоянии {}", userId, state);
-        return bookingClient.getByUserId(userId, state);
+        return bookingClient.getByUserId(userId, state, from, size, cursor);
     }
 
     /**
@@ -85,16 +113,82 @@ public class BookingController {
      *
      * @param userId идентификатор пользователя, запрашивающего данные о бронировании
      * @param stateParam состояние бронирования
+     * @param from индекс первого элемента страницы
+     * @param size размер страницы (без него возвращаются все бронирования, начиная с from)
+     * @param cursor курсор следующей страницы из заголовка X-Next-Cursor предыдущего ответа
      * @return ResponseEntity с объектом, представляющим результат получения данных о бронировании
      */
     @GetMapping("/owner")
     public ResponseEntity<Object> getByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(value = "state", defaultValue = "ALL",
-                                                       required = false) String stateParam) {
+                                                       required = false) String stateParam,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                               @Positive @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() ->
                         new ValidationException("Неизвестное состояние бронирования: " + stateParam));
         log.info("Получение всех забронированных вещей пользователя{}, в состоянии {}", userId, state);
-        return bookingClient.getByOwnerId(userId, state);
+        return bookingClient.getByOwnerId(userId, state, from, size, cursor);
+    }
+
+    /**
+     * Возвращает количество бронирований пользователя по каждому состоянию.
+     *
+     * @param userId идентификатор пользователя
+     * @return ResponseEntity с количеством бронирований по состояниям
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<Object> countByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение количества бронирований пользователя {} по состояниям", userId);
+        return bookingClient.countByUserId(userId);
+    }
+
+    /**
+     * Возвращает количество бронирований вещей пользователя по каждому состоянию.
+     *
+     * @param userId идентификатор владельца вещей
+     * @return ResponseEntity с количеством бронирований по состояниям
+     */
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> countByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение количества бронирований вещей пользователя {} по состояниям", userId);
+        return bookingClient.countByOwnerId(userId);
+    }
+
+    /**
+     * Выгружает все бронирования пользователя в формате NDJSON.
+     *
+     * @param userId идентификатор пользователя
+     * @param stateParam состояние бронирования
+     * @return ResponseEntity с потоком бронирований, передаваемым с сервера без буферизации
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestParam(value = "state", defaultValue = "ALL",
+                                                                        required = false) String stateParam) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() ->
+                        new ValidationException("Неизвестное состояние бронирования: " + stateParam));
+        log.info("Выгрузка всех бронирований пользователя {}, в состоянии {}", userId, state);
+        return bookingClient.exportByUserId(userId, state);
+    }
+
+    /**
+     * Выгружает все бронирования вещей пользователя в формате NDJSON.
+     *
+     * @param userId идентификатор владельца вещей
+     * @param stateParam состояние бронирования
+     * @return ResponseEntity с потоком бронирований, передаваемым с сервера без буферизации
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL",
+                                                                         required = false) String stateParam) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() ->
+                        new ValidationException("Неизвестное состояние бронирования: " + stateParam));
+        log.info("Выгрузка всех забронированных вещей пользователя {}, в состоянии {}", userId, state);
+        return bookingClient.exportByOwnerId(userId, state);
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+
+    @NotNull(message = "Должен быть указан идентификатор бронирования.")
+    private Long bookingId;
+
+    @NotNull(message = "Должно быть указано решение по бронированию.")
+    private Boolean approved;
+
+}
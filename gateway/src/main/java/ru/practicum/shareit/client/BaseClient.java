@@ -1,16 +1,28 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
     protected final RestTemplate rest;
@@ -79,8 +91,67 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Проксирование потокового ответа сервера (NDJSON) без буферизации тела в памяти шлюза.
+     * Статус ответа сервера известен до начала передачи тела, поэтому ошибки возвращаются клиенту как есть.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId,
+                                                           @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+            ClientHttpResponse response = request.execute();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+            MediaType contentType = response.getHeaders().getContentType();
+            if (contentType != null) {
+                responseBuilder.contentType(contentType);
+            }
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                try (response) {
+                    byte[] body = response.getBody().readAllBytes();
+                    return responseBuilder.body(out -> out.write(body));
+                }
+            }
+            return responseBuilder.body(out -> {
+                try (response; InputStream body = response.getBody()) {
+                    body.transferTo(out);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Передача тела запроса серверу потоком по мере его формирования, без буферизации в памяти шлюза.
+     */
+    protected ResponseEntity<Object> postStream(String path, Long userId, MediaType contentType,
+                                                StreamingHttpOutputMessage.Body body) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body);
+            } else {
+                body.writeTo(request.getBody());
+            }
+        };
+        try {
+            return prepareGatewayResponse(rest.execute(path, HttpMethod.POST, requestCallback,
+                    rest.responseEntityExtractor(Object.class)));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+        if (method == HttpMethod.GET) {
+            copyIfNoneMatch(headers);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -105,8 +176,21 @@ public class BaseClient {
         return headers;
     }
 
+    /**
+     * Передача заголовка If-None-Match клиента серверу без изменений, чтобы условный GET
+     * обрабатывался сервером по версии данных, а не шлюзом.
+     */
+    private static void copyIfNoneMatch(HttpHeaders headers) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String ifNoneMatch = attributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            }
+        }
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+        if (response.getStatusCode().is2xxSuccessful() || response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
             return response;
         }
 
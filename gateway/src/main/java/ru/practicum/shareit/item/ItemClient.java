@@ -3,11 +3,18 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -27,6 +34,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(Long userId, StreamingHttpOutputMessage.Body items) {
+        return postStream("/bulk", userId, MediaType.APPLICATION_NDJSON, items);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long idItem, ItemDtoInput itemDto) {
         return patch("/" + idItem, userId, itemDto);
     }
@@ -35,6 +46,23 @@ public class ItemClient extends BaseClient {
         return get("/" + idItem, userId);
     }
 
+    public ResponseEntity<Object> getAvailability(Long idItem, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new ValidationException("Окончание интервала должно быть позже его начала.");
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder("/" + idItem + "/availability");
+        if (from != null) {
+            parameters.put("from", from);
+            query.append("?from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.append(from != null ? "&" : "?").append("to={to}");
+        }
+        return get(query.toString(), userId, parameters);
+    }
+
     public ResponseEntity<Object> getAllItems(Long userId) {
         return get("", userId);
     }
@@ -43,8 +71,39 @@ public class ItemClient extends BaseClient {
         return delete("/" + idItem, userId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        return get("/search?text=" + text);
+    public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
+        if (size == null) {
+            return get("/search?text={text}&from={from}", userId, Map.of("text", text, "from", from));
+        }
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItems(Long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getSimilarItems(Long userId, Long idItem, Integer size) {
+        return get("/" + idItem + "/similar?size={size}", userId, Map.of("size", size));
+    }
+
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        String query = "/" + itemId + "/comments?size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get(query, userId, parameters);
     }
 
     public ResponseEntity<Object> saveComment(Long userId, Long itemId, CommentDtoInput commentDto) {
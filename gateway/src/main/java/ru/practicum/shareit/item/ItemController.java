@@ -1,15 +1,37 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.validation.CreateObject;
 import ru.practicum.shareit.validation.UpdateObject;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -17,6 +39,11 @@ import ru.practicum.shareit.validation.UpdateObject;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${shareit.item.import.max-size}")
+    private int maxImportSize;
 
     /**
      * Добавляет новую вещь.
@@ -33,6 +60,36 @@ public class ItemController {
         return itemClient.addItem(idUser, itemDto);
     }
 
+    /**
+     * Массово импортирует вещи пользователя.
+     * Тело запроса — JSON-массив либо NDJSON (одна вещь в строке). Каждая вещь проверяется
+     * по тем же правилам, что и при добавлении одной вещи; при первой ошибке импорт отклоняется
+     * целиком с указанием номера вещи, и сервер не вызывается. Проверенные вещи записываются
+     * во временный файл NDJSON, а не в память шлюза, и после проверки всех вещей передаются
+     * серверу потоком в одном запросе.
+     *
+     * @param body Тело запроса с вещами.
+     * @param idUser Идентификатор пользователя, добавляющего вещи.
+     * @return ResponseEntity с краткими данными добавленных вещей.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<Object> importItems(InputStream body,
+                                              @RequestHeader(value = "X-Sharer-User-Id") Long idUser)
+            throws IOException {
+        Path validated = Files.createTempFile("shareit-import-", ".ndjson");
+        try {
+            int count;
+            try (OutputStream out = Files.newOutputStream(validated)) {
+                count = writeValidatedItems(body, out);
+            }
+            log.info("Получен запрос пользователем {} на импорт вещей в количестве {}", idUser, count);
+            return itemClient.importItems(idUser, out -> Files.copy(validated, out));
+        } finally {
+            Files.deleteIfExists(validated);
+        }
+    }
+
     /**
      * Обновляет вещь.
      *
@@ -63,6 +120,27 @@ public class ItemController {
         return itemClient.getItemById(idItem, idUser);
     }
 
+    /**
+     * Возвращает свободные для бронирования промежутки вещи в заданном интервале.
+     *
+     * @param idItem Идентификатор вещи.
+     * @param from Начало интервала, по умолчанию текущий момент.
+     * @param to Окончание интервала, по умолчанию через 30 дней после начала.
+     * @param idUser Идентификатор пользователя, запрашивающего свободные даты.
+     * @return ResponseEntity со списком свободных промежутков.
+     */
+    @GetMapping("/{idItem}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long idItem,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                  @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        log.info("Получен запрос пользователем {} на получение свободных дат вещи с id={} с {} по {}",
+                idUser, idItem, from, to);
+        return itemClient.getAvailability(idItem, idUser, from, to);
+    }
+
     /**
      * Возвращает все вещи пользователя.
      *
@@ -93,14 +171,72 @@ public class ItemController {
      * Ищет вещи по тексту.
      *
      * @param text Текст, по которому нужно искать вещи.
+     * @param from Индекс первого элемента.
+     * @param size Количество элементов на странице (без него возвращаются все найденные вещи).
      * @param idUser Идентификатор пользователя, инициирующего поиск.
      * @return ResponseEntity с объектом, представляющим результат поиска вещей по тексту.
      */
     @GetMapping("/search")
     public ResponseEntity<Object> searchItemsByText(@RequestParam String text,
+                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(required = false) Integer size,
                                                     @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        log.info("Получен запрос пользователем {} на поиск вещей по тексту: {}", idUser, text);
-        return itemClient.searchItems(text);
+        log.info("Получен запрос пользователем {} на поиск вещей по тексту: {}, from={}, size={}",
+                idUser, text, from, size);
+        return itemClient.searchItems(idUser, text, from, size);
+    }
+
+    /**
+     * Возвращает подсказки названий доступных вещей по началу названия.
+     *
+     * @param prefix Начало названия вещи.
+     * @param size Максимальное количество подсказок.
+     * @param idUser Идентификатор пользователя, вводящего поисковый запрос.
+     * @return ResponseEntity со списком подсказок.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@RequestParam String prefix,
+                                               @Positive @RequestParam(defaultValue = "10") Integer size,
+                                               @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        log.info("Получен запрос пользователем {} на подсказки названий вещей по префиксу: {}, size={}",
+                idUser, prefix, size);
+        return itemClient.suggestItems(idUser, prefix, size);
+    }
+
+    /**
+     * Возвращает вещи, которые чаще всего бронировали вместе с данной вещью.
+     *
+     * @param idItem Идентификатор вещи.
+     * @param size Максимальное количество вещей.
+     * @param idUser Идентификатор пользователя, запрашивающего рекомендации.
+     * @return ResponseEntity со списком похожих вещей.
+     */
+    @GetMapping("/{idItem}/similar")
+    public ResponseEntity<Object> getSimilarItems(@PathVariable Long idItem,
+                                                  @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        log.info("Получен запрос пользователем {} на получение похожих вещей для вещи с id={}, size={}",
+                idUser, idItem, size);
+        return itemClient.getSimilarItems(idUser, idItem, size);
+    }
+
+    /**
+     * Возвращает комментарии вещи постранично, от более новых к более старым.
+     *
+     * @param itemId Идентификатор вещи.
+     * @param size Количество комментариев на странице.
+     * @param cursor Курсор следующей страницы из заголовка X-Next-Cursor предыдущего ответа.
+     * @param userId Идентификатор пользователя, запрашивающего комментарии.
+     * @return ResponseEntity со страницей комментариев.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос пользователем {} на получение комментариев вещи с id={}, size={}, cursor={}",
+                userId, itemId, size, cursor);
+        return itemClient.getComments(userId, itemId, size, cursor);
     }
 
     /**
@@ -119,4 +255,49 @@ public class ItemController {
                   userId, itemId, commentDto.getText());
         return itemClient.saveComment(userId, itemId, commentDto);
     }
+
+    /**
+     * Проверка вещей с записью каждой проверенной вещи в поток NDJSON.
+     *
+     * @return количество записанных вещей.
+     */
+    private int writeValidatedItems(InputStream body, OutputStream out) throws IOException {
+        int count = 0;
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        try (MappingIterator<ItemDtoInput> iterator = objectMapper.readerFor(ItemDtoInput.class).readValues(body);
+             SequenceWriter items = writer.writeValues(out)) {
+            while (hasNextItem(iterator, count)) {
+                if (count >= maxImportSize) {
+                    throw new ValidationException("Количество импортируемых вещей не может превышать "
+                            + maxImportSize + ".");
+                }
+                ItemDtoInput item = nextItem(iterator, count);
+                Set<ConstraintViolation<ItemDtoInput>> violations = validator.validate(item, CreateObject.class);
+                if (!violations.isEmpty()) {
+                    throw new ValidationException("Вещь № " + (count + 1) + ": " + violations.stream()
+                            .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" ")));
+                }
+                items.write(item);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean hasNextItem(MappingIterator<ItemDtoInput> iterator, int count) {
+        try {
+            return iterator.hasNextValue();
+        } catch (IOException e) {
+            throw new ValidationException("Вещь № " + (count + 1) + ": некорректный JSON.");
+        }
+    }
+
+    private static ItemDtoInput nextItem(MappingIterator<ItemDtoInput> iterator, int count) {
+        try {
+            return iterator.nextValue();
+        } catch (IOException e) {
+            throw new ValidationException("Вещь № " + (count + 1) + ": некорректный JSON.");
+        }
+    }
 }
@@ -9,6 +9,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
@@ -31,11 +34,27 @@ public class RequestClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId) {
-        return get("/all", userId);
+    public ResponseEntity<Object> getAllRequests(Long userId, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        String query = "/all";
+        String separator = "?";
+        if (size != null) {
+            parameters.put("size", size);
+            query += separator + "size={size}";
+            separator = "&";
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += separator + "cursor={cursor}";
+        }
+        return get(query, userId, parameters);
     }
 
     public ResponseEntity<Object> getRequestById(Long requestId) {
         return get("/" + requestId);
     }
+
+    public ResponseEntity<Object> getCandidates(Long userId, Long requestId) {
+        return get("/" + requestId + "/candidates", userId);
+    }
 }
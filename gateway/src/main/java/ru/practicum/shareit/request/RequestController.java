@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -44,15 +45,22 @@ public class RequestController {
     }
 
     /**
-     * Возвращает все запросы (за исключением запросов самого пользователя).
+     * Возвращает страницу запросов (за исключением запросов самого пользователя), от более новых к более старым.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor. Без размера страницы
+     * возвращаются все запросы.
      *
      * @param requestorId Идентификатор пользователя.
-     * @return ResponseEntity с объектом, представляющим все запросы.
+     * @param size Размер страницы (необязательный).
+     * @param cursor Курсор, полученный с предыдущей страницей (не задаётся для первой страницы).
+     * @return ResponseEntity со страницей запросов.
      */
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
-        log.info("Получен запрос на получение всех запросов, кроме запросов самого пользователя с id: {}", requestorId);
-        return requestClient.getAllRequests(requestorId);
+    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                                 @Positive @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос на получение запросов, кроме запросов самого пользователя с id: {}, size={}, cursor={}",
+                requestorId, size, cursor);
+        return requestClient.getAllRequests(requestorId, size, cursor);
     }
 
     /**
@@ -70,4 +78,19 @@ public class RequestController {
         return requestClient.getRequestById(requestId);
     }
 
+    /**
+     * Возвращает вещи, добавленные без указания запроса, но подходящие под его описание.
+     *
+     * @param requestorId Идентификатор пользователя, который делает запрос.
+     * @param requestId Идентификатор запроса.
+     * @return ResponseEntity со списком вещей-кандидатов.
+     */
+    @GetMapping("/{requestId}/candidates")
+    public ResponseEntity<Object> getCandidates(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                                @PathVariable Long requestId) {
+        log.info("Получен запрос на получение вещей-кандидатов для запроса с id: {} пользователем с id: {}",
+                requestId, requestorId);
+        return requestClient.getCandidates(requestorId, requestId);
+    }
+
 }
\ No newline at end of file
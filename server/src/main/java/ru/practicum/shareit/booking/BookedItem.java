@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция пары «арендатор — вещь» для построения рекомендаций похожих вещей.
+ */
+public record BookedItem(Long bookerId, Long itemId) {
+}
@@ -1,16 +1,40 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.user.UserChangeCounter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
 
+    /**
+     * Состояния, выборка по которым зависит только от статуса бронирования, а не от текущего момента,
+     * поэтому для них допустим условный GET по версии данных владельца. Выборки CURRENT, PAST и FUTURE
+     * меняются с течением времени без изменения данных, поэтому отдаются без ETag.
+     */
+    private static final Set<BookingState> VERSIONED_STATES =
+            EnumSet.of(BookingState.ALL, BookingState.WAITING, BookingState.REJECTED);
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final UserChangeCounter userChangeCounter;
 
     /**
      * • Добавление нового запроса на бронирование. Запрос может быть создан любым пользователем,
@@ -41,6 +65,21 @@ public class BookingController {
         return BookingMapper.toBookingDtoOutput(bookingService.updateBooking(ownerId, bookingId, approved));
     }
 
+    /**
+     * • Пакетное подтверждение или отклонение запросов на бронирование владельцем вещей.
+     * Эндпоинт — PATCH /bookings/batch, в теле — список пар bookingId / approved.
+     * Все решения применяются в одной транзакции, результат возвращается по каждому бронированию.
+     *
+     * @param ownerId   ID владельца вещей.
+     * @param decisions решения по бронированиям.
+     * @return Статус либо ошибка по каждому бронированию.
+     */
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> updateBatchByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                             @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.updateBookings(ownerId, decisions);
+    }
+
     /**
      * • Получение данных о конкретном бронировании (включая его статус).
      * Может быть выполнено либо автором бронирования, либо владельцем вещи,
@@ -50,7 +89,7 @@ public class BookingController {
     @GetMapping("/{bookingId}")
     public BookingDtoOutput getWithStatusById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @PathVariable Long bookingId) {
-        return BookingMapper.toBookingDtoOutput(bookingService.getWithStatusById(userId, bookingId));
+        return bookingService.getWithStatusById(userId, bookingId);
     }
 
     /**
@@ -60,26 +99,105 @@ public class BookingController {
      * Также он может принимать значения CURRENT (англ. «текущие»), PAST (англ. «завершённые»),
      * FUTURE (англ. «будущие»), WAITING (англ. «ожидающие подтверждения»), REJECTED (англ. «отклонённые»).
      * Бронирования должны возвращаться отсортированными по дате от более новых к более старым.
+     * Постраничный вывод включается параметром size: from и size задают смещение и размер страницы,
+     * а курсор следующей страницы возвращается в заголовке X-Next-Cursor и передаётся
+     * в параметре cursor для выборки следующей страницы без OFFSET.
+     * Без параметра size возвращаются все бронирования, начиная с from.
      */
     @GetMapping
-    public List<BookingDtoOutput> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(value = "state",
-                                                      defaultValue = "ALL", required = false) String state) {
-        return bookingService.getByUserId(userId, state)
-                .stream().map(BookingMapper::toBookingDtoOutput).toList();
+    public ResponseEntity<List<BookingDtoOutput>> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(value = "state",
+                                                                      defaultValue = "ALL", required = false) String state,
+                                                              @RequestParam(defaultValue = "0") Integer from,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @RequestParam(required = false) String cursor) {
+        return toPage(bookingService.getByUserId(userId, state, from, size, cursor));
     }
 
     /**
      * • Получение списка бронирований для всех вещей текущего пользователя.
      * Эндпоинт — GET /bookings/owner?state={state}.
      * Этот запрос имеет смысл для владельца хотя бы одной вещи.
-     * Работа параметра state аналогична его работе в предыдущем сценарии.
+     * Работа параметров state, from, size и cursor аналогична их работе в предыдущем сценарии.
+     * Для состояний ALL, WAITING и REJECTED поддерживается условный GET: при совпадении If-None-Match
+     * с версией данных владельца и параметрами запроса возвращается 304 без чтения из БД.
+     * Состояние входит в тег в нормализованном виде: пустое и в любом регистре — как имя BookingState.
+     * Для CURRENT, PAST и FUTURE ETag не выдаётся: бронирование переходит между этими состояниями
+     * по наступлении дат начала и окончания, а не при изменении данных.
      */
     @GetMapping("/owner")
-    public List<BookingDtoOutput> getByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(value = "state", defaultValue = "ALL",
-                                                       required = false) String state) {
-        return bookingService.getByOwnerId(userId, state)
-                .stream().map(BookingMapper::toBookingDtoOutput).toList();
+    public ResponseEntity<List<BookingDtoOutput>> getByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(value = "state", defaultValue = "ALL",
+                                                                       required = false) String state,
+                                                               @RequestParam(defaultValue = "0") Integer from,
+                                                               @RequestParam(required = false) Integer size,
+                                                               @RequestParam(required = false) String cursor,
+                                                               WebRequest request) {
+        Optional<BookingState> versioned = BookingState.from(state).filter(VERSIONED_STATES::contains);
+        if (versioned.isPresent() && request.checkNotModified(userChangeCounter.etag(userId, request,
+                Map.of("state", versioned.get().name())))) {
+            return null;
+        }
+        return toPage(bookingService.getByOwnerId(userId, state, from, size, cursor));
+    }
+
+    /**
+     * • Количество бронирований текущего пользователя по каждому состоянию.
+     * Эндпоинт — GET /bookings/counts.
+     */
+    @GetMapping("/counts")
+    public BookingCountsDto countByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.countByUserId(userId);
+    }
+
+    /**
+     * • Количество бронирований вещей текущего пользователя по каждому состоянию.
+     * Эндпоинт — GET /bookings/owner/counts.
+     */
+    @GetMapping("/owner/counts")
+    public BookingCountsDto countByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.countByOwnerId(userId);
+    }
+
+    /**
+     * • Выгрузка всех бронирований текущего пользователя в формате NDJSON (одна бронь в строке).
+     * Эндпоинт — GET /bookings/export?state={state}.
+     * Строки читаются из БД потоком и сразу пишутся в ответ, поэтому расход памяти
+     * не зависит от количества бронирований.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestParam(value = "state", defaultValue = "ALL",
+                                                                        required = false) String state) {
+        return toNdjson(bookingService.exportByUserId(userId, state));
+    }
+
+    /**
+     * • Выгрузка всех бронирований вещей текущего пользователя в формате NDJSON.
+     * Эндпоинт — GET /bookings/owner/export?state={state}.
+     */
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL",
+                                                                         required = false) String state) {
+        return toNdjson(bookingService.exportByOwnerId(userId, state));
+    }
+
+    private ResponseEntity<StreamingResponseBody> toNdjson(BookingExport export) {
+        StreamingResponseBody body = out -> export.writeTo(booking -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(BookingMapper.toBookingDtoOutput(booking)));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static ResponseEntity<List<BookingDtoOutput>> toPage(Window<BookingDtoOutput> window) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        KeysetCursor.next(window).ifPresent(next -> response.header(KeysetCursor.HEADER, next));
+        return response.body(window.getContent());
     }
 }
\ No newline at end of file
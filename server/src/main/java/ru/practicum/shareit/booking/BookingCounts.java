@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Проекция результата агрегирующего запроса количества бронирований по состояниям.
+ */
+public interface BookingCounts {
+
+    long getTotal();
+
+    long getCurrent();
+
+    long getPast();
+
+    long getFuture();
+
+    long getWaiting();
+
+    long getRejected();
+}
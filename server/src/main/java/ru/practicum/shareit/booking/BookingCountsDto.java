@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Количество бронирований по каждому значению BookingState.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingCountsDto {
+
+    private long all;
+
+    private long current;
+
+    private long past;
+
+    private long future;
+
+    private long waiting;
+
+    private long rejected;
+
+}
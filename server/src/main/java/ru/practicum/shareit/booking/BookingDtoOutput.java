@@ -27,4 +27,14 @@ public class BookingDtoOutput {
     @JsonProperty("status")
     private BookingStatus status;
 
+    /**
+     * Конструктор для проекций JPQL и Criteria API: бронирование читается из БД сразу в DTO
+     * вместе с полями вещи и арендатора, без загрузки сущностей в контекст персистентности.
+     */
+    public BookingDtoOutput(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                            Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                            Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, new ItemDtoShort(itemId, itemName, itemDescription, itemAvailable),
+                new UserDtoShort(bookerId, bookerName, bookerEmail), status);
+    }
 }
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserChangeCounter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Истечение бронирований, которые так и не были подтверждены или отклонены до даты начала.
+ * Ожидающие бронирования раскладываются по ячейкам хешированного колеса таймеров по моменту
+ * истечения (дата начала плюс период ожидания), поэтому каждый такт просматривает только одну ячейку,
+ * а не всю таблицу бронирований. Истёкшие бронирования переводятся в статус EXPIRED пакетным UPDATE,
+ * после чего перестают участвовать в проверке пересечений и выборках ожидающих бронирований.
+ * Период ожидания (shareit.booking.expiry.grace-period, по умолчанию сутки) оставляет владельцу время
+ * подтвердить бронирование и после даты его начала.
+ * Колесо заполняется из БД при запуске приложения и далее поддерживается при создании
+ * и обработке бронирований.
+ */
+@Slf4j
+@Component
+public class BookingExpiryScheduler {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingIndex itemBookingIndex;
+    private final ItemRepository itemRepository;
+    private final UserChangeCounter userChangeCounter;
+    private final Duration gracePeriod;
+    private final long tickMillis;
+    private final List<Set<Long>> wheel;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Counter expiredCounter;
+
+    private volatile long lastTick;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepository,
+                                  ItemBookingIndex itemBookingIndex,
+                                  ItemRepository itemRepository,
+                                  UserChangeCounter userChangeCounter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking.expiry.grace-period}") Duration gracePeriod,
+                                  @Value("${shareit.booking.expiry.tick}") Duration tick,
+                                  @Value("${shareit.booking.expiry.wheel-size}") int wheelSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemBookingIndex = itemBookingIndex;
+        this.itemRepository = itemRepository;
+        this.userChangeCounter = userChangeCounter;
+        this.gracePeriod = gracePeriod;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastTick = tickOf(LocalDateTime.now()) - 1;
+        this.expiredCounter = Counter.builder("shareit.booking.expiry.expired")
+                .description("Количество бронирований, переведённых в статус EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiry.backlog", pending, Map::size)
+                .description("Количество ожидающих бронирований в колесе таймеров")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Загрузка ожидающих бронирований из БД при запуске приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<WaitingBooking> waiting = bookingRepository.findAllWaiting();
+        waiting.forEach(this::schedule);
+        log.info("Загружены ожидающие подтверждения бронирования в колесо таймеров : [ {} ].", waiting.size());
+    }
+
+    /**
+     * Поставить созданное бронирование в очередь на истечение.
+     * Внутри транзакции бронирование попадает в колесо только после её фиксации.
+     *
+     * @param booking сохранённое бронирование в статусе WAITING.
+     */
+    public void schedule(Booking booking) {
+        if (booking.getStatus() == BookingStatus.WAITING) {
+            WaitingBooking waiting = new WaitingBooking(booking.getId(), booking.getItem().getId(), booking.getStart());
+            TransactionHooks.afterCommit(() -> schedule(waiting));
+        }
+    }
+
+    /**
+     * Снять бронирование с очереди на истечение (бронирование подтверждено или отклонено).
+     * Внутри транзакции бронирование снимается только после её фиксации, поэтому при откате
+     * подтверждения оно по-прежнему истечёт.
+     *
+     * @param bookingId ID бронирования.
+     */
+    public void cancel(Long bookingId) {
+        TransactionHooks.afterCommit(() -> {
+            Pending removed = pending.remove(bookingId);
+            if (removed != null) {
+                wheel.get(slot(removed.deadlineTick())).remove(bookingId);
+            }
+        });
+    }
+
+    /**
+     * Такт колеса: обход ячеек, наступивших с прошлого такта, и пакетное истечение просроченных бронирований.
+     * Номер обработанного такта запоминается только после фиксации транзакции, а снятые с колеса
+     * бронирования при откате возвращаются в свои ячейки, поэтому следующий такт обработает их повторно.
+     */
+    @Scheduled(fixedRateString = "${shareit.booking.expiry.tick}")
+    @Transactional
+    public void tick() {
+        long nowTick = tickOf(LocalDateTime.now());
+        long from = Math.max(lastTick + 1, nowTick - wheel.size() + 1);
+        Map<Long, Pending> taken = new HashMap<>();
+        for (long t = from; t <= nowTick; t++) {
+            Iterator<Long> it = wheel.get(slot(t)).iterator();
+            while (it.hasNext()) {
+                Long bookingId = it.next();
+                Pending p = pending.get(bookingId);
+                if (p == null) {
+                    it.remove();
+                } else if (p.deadlineTick() <= nowTick && pending.remove(bookingId, p)) {
+                    it.remove();
+                    taken.put(bookingId, p);
+                }
+            }
+        }
+        TransactionHooks.afterCommit(() -> lastTick = nowTick);
+        if (taken.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterRollback(() -> taken.forEach(this::restore));
+        List<Long> due = new ArrayList<>(taken.keySet());
+        Set<Long> items = new HashSet<>();
+        taken.values().forEach(p -> items.add(p.itemId()));
+        int expired = 0;
+        for (int i = 0; i < due.size(); i += BATCH_SIZE) {
+            expired += bookingRepository.updateStatusByIdIn(due.subList(i, Math.min(i + BATCH_SIZE, due.size())),
+                    BookingStatus.WAITING, BookingStatus.EXPIRED);
+        }
+        itemRepository.findOwnerIdsByIdIn(items).forEach(userChangeCounter::touch);
+        TransactionHooks.afterCommit(() -> items.forEach(itemBookingIndex::evict));
+        expiredCounter.increment(expired);
+        log.info("Истекли неподтверждённые бронирования : [ {} ], в очереди осталось : [ {} ].",
+                expired, pending.size());
+    }
+
+    private void schedule(WaitingBooking booking) {
+        long deadlineTick = Math.max(deadlineTickOf(booking.start().plus(gracePeriod)), lastTick + 1);
+        pending.put(booking.id(), new Pending(booking.itemId(), deadlineTick));
+        wheel.get(slot(deadlineTick)).add(booking.id());
+    }
+
+    private void restore(Long bookingId, Pending p) {
+        if (pending.putIfAbsent(bookingId, p) == null) {
+            wheel.get(slot(p.deadlineTick())).add(bookingId);
+        }
+    }
+
+    private long tickOf(LocalDateTime moment) {
+        return Math.floorDiv(Duration.between(EPOCH, moment).toMillis(), tickMillis);
+    }
+
+    private long deadlineTickOf(LocalDateTime moment) {
+        return Math.floorDiv(Duration.between(EPOCH, moment).toMillis() + tickMillis - 1, tickMillis);
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.size());
+    }
+
+    private record Pending(Long itemId, long deadlineTick) {
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.util.function.Consumer;
+
+/**
+ * Подготовленная выгрузка бронирований. Параметры выгрузки проверяются при её создании,
+ * а чтение строк из БД происходит только при вызове writeTo.
+ */
+@FunctionalInterface
+public interface BookingExport {
+
+    void writeTo(Consumer<Booking> consumer);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция интервала активного бронирования вещи для проверки пересечений при пакетном подтверждении.
+ */
+public record BookingInterval(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+
+    boolean overlaps(Booking booking) {
+        return !id.equals(booking.getId()) && !start.isAfter(booking.getEnd()) && !end.isBefore(booking.getStart());
+    }
+}
@@ -37,6 +37,11 @@ public class BookingMapper {
         return bookingDto;
     }
 
+    public static BookingCountsDto toBookingCountsDto(BookingCounts counts) {
+        return new BookingCountsDto(counts.getTotal(), counts.getCurrent(), counts.getPast(), counts.getFuture(),
+                counts.getWaiting(), counts.getRejected());
+    }
+
     public static Booking toBooking(BookingDto bookingDto) {
         Booking booking = new Booking();
 
@@ -1,32 +1,109 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingStreamRepository, BookingViewRepository {
 
-    List<Booking> findAllByBookerOrderByStartDesc(User bookerFromDb);
+    List<Booking> findAllByItem_IdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime, LocalDateTime nowDateTime1);
+    Optional<Booking> findFirstByItem_IdAndStartAfterAndStatusInOrderByStartAsc(Long itemId, LocalDateTime now,
+                                                                              Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByBookerAndEndIsBeforeOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime);
+    boolean existsByItem_IdAndBooker_IdAndEndBefore(Long itemId, Long bookerId, LocalDateTime now);
 
-    List<Booking> findAllByBookerAndStartIsAfterOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime);
+    Optional<Booking> findFirstByItem_IdAndEndBeforeAndStatusOrderByEndDesc(Long itemId, LocalDateTime now,
+                                                                          BookingStatus status);
 
-    List<Booking> findAllByBookerAndStatusEqualsOrderByStartDesc(User bookerFromDb, BookingState bookingState);
+    /**
+     * Есть ли у вещи другое активное бронирование, пересекающееся с интервалом [start, end].
+     */
+    @Query("select count(b) > 0 from Booking b where b.item.id = :itemId and b.id <> :bookingId "
+            + "and b.status in :statuses and b.start <= :end and b.end >= :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("bookingId") Long bookingId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByItem_OwnerOrderByStartDesc(User bookerFromDb);
+    /**
+     * Активные бронирования вещей, пересекающиеся с интервалом [start, end], в виде проекции.
+     */
+    @Query("select new ru.practicum.shareit.booking.BookingInterval(b.id, b.item.id, b.start, b.end) "
+            + "from Booking b where b.item.id in :itemIds and b.status in :statuses "
+            + "and b.start <= :end and b.end >= :start")
+    List<BookingInterval> findActiveIntervals(@Param("itemIds") Collection<Long> itemIds,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("statuses") Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByItem_OwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime, LocalDateTime nowDateTime1);
+    @Query("select distinct b.item from Booking b where b.status = :status and b.end > :from and b.end <= :to")
+    List<Item> findItemsWithBookingsEndedBetween(@Param("status") BookingStatus status,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
 
-    List<Booking> findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime);
+    @Query("select distinct b.item from Booking b left join b.item.lastBooking l "
+            + "where b.status = :status and b.end < :to and (l is null or b.end > l.end)")
+    List<Item> findItemsWithStaleLastBooking(@Param("status") BookingStatus status,
+                                             @Param("to") LocalDateTime to);
 
-    List<Booking> findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(User bookerFromDb, LocalDateTime nowDateTime);
+    String COUNTS_SELECT = "select count(*) as total, "
+            + "count(*) filter (where b.start_date < :now and b.end_date > :now) as current, "
+            + "count(*) filter (where b.end_date < :now) as past, "
+            + "count(*) filter (where b.start_date > :now) as future, "
+            + "count(*) filter (where b.status = 'WAITING') as waiting, "
+            + "count(*) filter (where b.status = 'REJECTED') as rejected "
+            + "from bookings b ";
 
-    List<Booking> findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(User bookerFromDb, BookingState bookingState);
-}
\ No newline at end of file
+    @Query(value = COUNTS_SELECT + "where b.booker_id = :bookerId", nativeQuery = true)
+    BookingCounts countByBooker(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(value = COUNTS_SELECT + "join items i on i.id = b.item_id where i.owner_id = :ownerId", nativeQuery = true)
+    BookingCounts countByOwner(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.WaitingBooking(b.id, b.item.id, b.start) from Booking b "
+            + "where b.status = ru.practicum.shareit.booking.BookingStatus.WAITING")
+    List<WaitingBooking> findAllWaiting();
+
+    @Query("select distinct new ru.practicum.shareit.booking.BookedItem(b.booker.id, b.item.id) from Booking b "
+            + "where b.status in :statuses")
+    List<BookedItem> findAllBookedItems(@Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("select b.item.id from Booking b where b.booker.id = :bookerId and b.status in :statuses")
+    List<Long> findBookedItemIds(@Param("bookerId") Long bookerId,
+                                 @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Modifying
+    @Query("update Booking b set b.status = :to where b.id in :ids and b.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("from") BookingStatus from,
+                           @Param("to") BookingStatus to);
+
+    /**
+     * Бронирования из списка, относящиеся к вещам указанного хозяина (проверка владения одним запросом).
+     */
+    @Query("select b from Booking b join fetch b.item i where b.id in :ids and i.owner.id = :ownerId")
+    List<Booking> findAllOwnedByIdIn(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Бронирование, доступное пользователю (арендатору или хозяину вещи), сразу в виде DTO (проекция JPQL).
+     */
+    @Query("select new ru.practicum.shareit.booking.BookingDtoOutput(b.id, b.start, b.end, b.status, "
+            + "i.id, i.name, i.description, i.available, u.id, u.name, u.email) "
+            + "from Booking b join b.item i join b.booker u "
+            + "where b.id = :bookingId and (u.id = :userId or i.owner.id = :userId)")
+    Optional<BookingDtoOutput> findDtoByIdAndParticipant(@Param("bookingId") Long bookingId,
+                                                         @Param("userId") Long userId);
+}
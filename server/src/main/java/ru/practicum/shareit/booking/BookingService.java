@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Window;
+
 import java.util.List;
 
 public interface BookingService {
@@ -8,9 +10,19 @@ public interface BookingService {
 
     Booking updateBooking(Long ownerId, Long bookingId, Boolean approved);
 
-    Booking getWithStatusById(Long userId, Long bookingId);
+    List<BookingDecisionResultDto> updateBookings(Long ownerId, List<BookingDecisionDto> decisions);
+
+    BookingDtoOutput getWithStatusById(Long userId, Long bookingId);
+
+    Window<BookingDtoOutput> getByUserId(Long userId, String state, Integer from, Integer size, String cursor);
+
+    Window<BookingDtoOutput> getByOwnerId(Long userId, String state, Integer from, Integer size, String cursor);
+
+    BookingCountsDto countByUserId(Long userId);
+
+    BookingCountsDto countByOwnerId(Long userId);
 
-    List<Booking> getByUserId(Long userId, String state);
+    BookingExport exportByUserId(Long userId, String state);
 
-    List<Booking> getByOwnerId(Long userId, String state);
+    BookingExport exportByOwnerId(Long userId, String state);
 }
@@ -3,29 +3,59 @@ package ru.practicum.shareit.booking;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.RestrictedAccessException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSimilarityIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    /**
+     * Ограничение исключения пересечений бронирований (schema-postgresql.sql) и код его нарушения в PostgreSQL.
+     */
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION_STATE = "23P01";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingIndex itemBookingIndex;
+    private final NearestBookingTracker nearestBookingTracker;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final ItemSimilarityIndex itemSimilarityIndex;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * Создание брони в БД.
+     * Строка вещи блокируется до конца транзакции, поэтому параллельные бронирования одной вещи
+     * проверяются и сохраняются последовательно, а бронирования разных вещей не мешают друг другу.
      *
      * @param bookerId        пользователь, пытающийся забронировать вещь.
      * @param inputBookingDto создаваемая бронь.
@@ -34,7 +64,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public Booking addBooking(Long bookerId, BookingDtoInput inputBookingDto) {
-        Item itemFromDB = itemRepository.findById(inputBookingDto.getItemId())
+        Item itemFromDB = itemRepository.findByIdForUpdate(inputBookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("При создании бронирования не найдена " +
                         "вещь с ID = " + inputBookingDto.getItemId() + " в БД."));
         BookingDto bookingDto = new BookingDto();
@@ -51,7 +81,21 @@ public class BookingServiceImpl implements BookingService {
         bookingDto.setStatus(BookingStatus.WAITING);
         bookingDto.setItem(itemFromDB);
         bookingDto.setBooker(bookerFromDb);
-        Booking result = bookingRepository.save(BookingMapper.toBooking(bookingDto));
+        Booking result;
+        try {
+            result = bookingRepository.save(BookingMapper.toBooking(bookingDto));
+        } catch (DataIntegrityViolationException ex) {
+            if (!isOverlapViolation(ex)) {
+                throw ex;
+            }
+            String message = "Найдено пересечение дат бронирования на вещь с name = " + itemFromDB.getName() + ".";
+            log.debug(message);
+            throw new ValidationException(message);
+        }
+        itemBookingIndex.update(result);
+        nearestBookingTracker.onChanged(result);
+        bookingExpiryScheduler.schedule(result);
+        itemSimilarityIndex.onBooked(result);
         log.info("Создано бронирование с ID = [ {} ].", result.getId());
         return result;
     }
@@ -70,6 +114,12 @@ public class BookingServiceImpl implements BookingService {
     public Booking updateBooking(Long ownerId, Long bookingId, Boolean approved) {
         Booking bookingFromBd = bookingRepository.findById(bookingId).orElseThrow(() -> new NotFoundException(
                 "При обновлении бронирования не найдено бронирование с ID = '" + bookingId + "' в БД."));
+        if (bookingFromBd.getStatus().equals(BookingStatus.EXPIRED)) {
+            String message = "Бронирование не было обработано до даты начала и имеет статус '"
+                    + bookingFromBd.getStatus() + "'.";
+            log.info(message);
+            throw new ValidationException(message);
+        }
         if (bookingFromBd.getStatus().equals(BookingStatus.APPROVED) && approved) {
             String message = "Данное бронирование уже было обработано и имеет статус '"
                     + bookingFromBd.getStatus() + "'.";
@@ -81,8 +131,16 @@ public class BookingServiceImpl implements BookingService {
         List<Item> items = ownerFromDb.getItems();
         for (Item i : ownerFromDb.getItems()) {
             if (i.getId().equals(bookingFromBd.getItem().getId())) {
+                if (approved && overlapsActive(bookingFromBd)) {
+                    String message = "Найдено пересечение дат бронирования на вещь с name = " + i.getName() + ".";
+                    log.info(message);
+                    throw new ValidationException(message);
+                }
                 bookingFromBd.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
                 Booking result = bookingRepository.save(bookingFromBd);
+                itemBookingIndex.update(result);
+                nearestBookingTracker.onChanged(result);
+                bookingExpiryScheduler.cancel(bookingId);
                 log.info("Бронирование с ID = [ {} ] обновлено.", bookingId);
                 return result;
             }
@@ -92,6 +150,77 @@ public class BookingServiceImpl implements BookingService {
         throw new NotFoundException(message);
     }
 
+    /**
+     * Пакетное подтверждение или отклонение бронирований хозяином вещей в одной транзакции.
+     * Владение всеми бронированиями проверяется одним запросом, а изменённые статусы
+     * сохраняются пакетным UPDATE при фиксации транзакции (hibernate.jdbc.batch_size).
+     * Вещи подтверждаемых бронирований блокируются один раз, а их активные бронирования читаются
+     * одним запросом: пересечения, в том числе между подтверждениями из одного пакета, проверяются в памяти.
+     *
+     * @param ownerId   хозяин вещей.
+     * @param decisions список решений по бронированиям.
+     * @return результат по каждому решению: новый статус либо описание ошибки.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> updateBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new RestrictedAccessException("При пакетном обновлении бронирований не найден пользователь "
+                    + "с ID = '" + ownerId + "' в БД.");
+        }
+        Map<Long, Booking> owned = bookingRepository.findAllOwnedByIdIn(ownerId,
+                        decisions.stream().map(BookingDecisionDto::getBookingId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, Map<Long, BookingInterval>> active = lockActiveIntervals(decisions.stream()
+                .filter(BookingDecisionDto::getApproved)
+                .map(decision -> owned.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .toList());
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        List<Booking> updated = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Booking booking = owned.get(decision.getBookingId());
+            if (booking == null) {
+                results.add(new BookingDecisionResultDto(decision.getBookingId(), null,
+                        "Бронирование не найдено среди бронирований вещей пользователя."));
+                continue;
+            }
+            if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+                results.add(new BookingDecisionResultDto(decision.getBookingId(), booking.getStatus(),
+                        "Бронирование не было обработано до даты начала и имеет статус '" + booking.getStatus() + "'."));
+                continue;
+            }
+            if (booking.getStatus().equals(BookingStatus.APPROVED) && decision.getApproved()) {
+                results.add(new BookingDecisionResultDto(decision.getBookingId(), booking.getStatus(),
+                        "Данное бронирование уже было обработано и имеет статус '" + booking.getStatus() + "'."));
+                continue;
+            }
+            Map<Long, BookingInterval> itemActive = active.computeIfAbsent(booking.getItem().getId(),
+                    id -> new HashMap<>());
+            if (decision.getApproved() && itemActive.values().stream().anyMatch(other -> other.overlaps(booking))) {
+                results.add(new BookingDecisionResultDto(decision.getBookingId(), booking.getStatus(),
+                        "Найдено пересечение дат с другим активным бронированием вещи."));
+                continue;
+            }
+            booking.setStatus(decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            if (decision.getApproved()) {
+                itemActive.put(booking.getId(), new BookingInterval(booking.getId(), booking.getItem().getId(),
+                        booking.getStart(), booking.getEnd()));
+            } else {
+                itemActive.remove(booking.getId());
+            }
+            updated.add(booking);
+            results.add(new BookingDecisionResultDto(decision.getBookingId(), booking.getStatus(), null));
+        }
+        for (Booking booking : updated) {
+            itemBookingIndex.update(booking);
+            nearestBookingTracker.onChanged(booking);
+            bookingExpiryScheduler.cancel(booking.getId());
+        }
+        log.info("Пакетно обработано бронирований хозяином с ID = [ {} ] : [ {} ].", ownerId, results.size());
+        return results;
+    }
+
     /**
      * • Получение данных о конкретном бронировании (включая его статус).
      * Может быть выполнено либо автором бронирования, либо владельцем вещи,
@@ -99,18 +228,19 @@ public class BookingServiceImpl implements BookingService {
      *
      * @param userId    ID пользователя, делающего запрос.
      * @param bookingId ID брони.
+     * @return бронь, прочитанная из БД проекцией вместе с вещью и арендатором.
      */
     @Override
-    public Booking getWithStatusById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с ID = '" + bookingId
-                        + "не найдено в БД при его получении."));
-        if (userId.equals(booking.getBooker().getId()) || userId.equals(booking.getItem().getOwner().getId())) {
-            return booking;
-        }
-        throw new NotFoundException("Ошибка при получении брони с ID = '" + bookingId
-                + "'. Пользователь с ID = '" + userId
-                + "' не является ни хозяином, ни пользователем, забронировавшим вещь.");
+    public BookingDtoOutput getWithStatusById(Long userId, Long bookingId) {
+        return bookingRepository.findDtoByIdAndParticipant(bookingId, userId).orElseThrow(() -> {
+            if (!bookingRepository.existsById(bookingId)) {
+                return new NotFoundException("Бронирование с ID = '" + bookingId
+                        + "не найдено в БД при его получении.");
+            }
+            return new NotFoundException("Ошибка при получении брони с ID = '" + bookingId
+                    + "'. Пользователь с ID = '" + userId
+                    + "' не является ни хозяином, ни пользователем, забронировавшим вещь.");
+        });
     }
 
     /**
@@ -122,61 +252,19 @@ public class BookingServiceImpl implements BookingService {
      *
      * @param userId ID пользователя.
      * @param state  статус бронирования.
+     * @param from   индекс первого элемента (используется, если курсор не передан).
+     * @param size   количество элементов на странице (null — все бронирования).
+     * @param cursor курсор, полученный с предыдущей страницей (может быть null).
      */
     @Override
-    public List<Booking> getByUserId(Long userId, String state) {
-        final LocalDateTime nowDateTime = LocalDateTime.now();
-        BookingState bookingState;
-
-        if (state.isBlank()) {
-            bookingState = BookingState.ALL;
-        } else {
-            try {
-                bookingState = BookingState.valueOf(state);
-            } catch (IllegalArgumentException ex) {
-                throw new ValidationException("Неизвестное состояние бронирования.");
-            }
+    public Window<BookingDtoOutput> getByUserId(Long userId, String state, Integer from, Integer size, String cursor) {
+        BookingState bookingState = parseState(state);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При получении списка бронирований не найден пользователь (арендующий) " +
+                    "с ID = " + userId + " в БД.");
         }
-        User bookerFromDb = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("При " +
-                "получении списка бронирований не найден пользователь (арендующий) с ID = " + userId + " в БД."));
-        List<Booking> result = new ArrayList<>();
-
-        switch (bookingState) {
-            case ALL: {
-                result = bookingRepository.findAllByBookerOrderByStartDesc(bookerFromDb);
-                break;
-            }
-            case CURRENT: {
-                result = bookingRepository.findAllByBookerAndStartBeforeAndEndAfterOrderByStartDesc(
-                        bookerFromDb, nowDateTime, nowDateTime);
-                break;
-            }
-            case PAST: {
-                result = bookingRepository.findAllByBookerAndEndIsBeforeOrderByStartDesc(
-                        bookerFromDb, nowDateTime);
-                break;
-            }
-            case FUTURE: {
-                result = bookingRepository.findAllByBookerAndStartIsAfterOrderByStartDesc(
-                        bookerFromDb, nowDateTime);
-                break;
-            }
-            case WAITING: {
-                result = bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(
-                        bookerFromDb, BookingState.WAITING);
-                break;
-            }
-            case REJECTED: {
-                result = bookingRepository.findAllByBookerAndStatusEqualsOrderByStartDesc(
-                        bookerFromDb, BookingState.REJECTED);
-                break;
-            }
-            default: {
-                throw new ValidationException("Неизвестное состояние бронирования.");
-            }
-        }
-
-        return result;
+        return findPage(BookingSpecifications.byBooker(userId)
+                .and(BookingSpecifications.byState(bookingState, LocalDateTime.now())), from, size, cursor);
     }
 
     /**
@@ -187,58 +275,198 @@ public class BookingServiceImpl implements BookingService {
      *               Также он может принимать значения CURRENT (англ. «текущие»), PAST (англ. «завершённые»),
      *               FUTURE (англ. «будущие»), WAITING (англ. «ожидающие подтверждения»),
      *               REJECTED (англ. «отклонённые»).
+     * @param from   индекс первого элемента (используется, если курсор не передан).
+     * @param size   количество элементов на странице (null — все бронирования).
+     * @param cursor курсор, полученный с предыдущей страницей (может быть null).
      * @return Бронирования должны возвращаться отсортированными по дате от более новых к более старым.
      */
     @Override
-    public List<Booking> getByOwnerId(Long userId, String state) {
-        final LocalDateTime nowDateTime = LocalDateTime.now();
-        BookingState bookingState;
+    public Window<BookingDtoOutput> getByOwnerId(Long userId, String state, Integer from, Integer size, String cursor) {
+        BookingState bookingState = parseState(state);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При получении списка бронирований не найден хозяин с ID = " + userId
+                    + " в БД.");
+        }
+        return findPage(BookingSpecifications.byOwner(userId)
+                .and(BookingSpecifications.byState(bookingState, LocalDateTime.now())), from, size, cursor);
+    }
 
-        try {
-            bookingState = BookingState.valueOf(state);
-        } catch (IllegalArgumentException ex) {
-            throw new ValidationException("Неизвестное состояние бронирования.");
+    /**
+     * Количество бронирований пользователя по каждому состоянию.
+     * Все значения считаются одним агрегирующим запросом (COUNT(*) FILTER) без загрузки бронирований.
+     *
+     * @param userId ID пользователя.
+     * @return количество бронирований по состояниям.
+     */
+    @Override
+    public BookingCountsDto countByUserId(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При подсчёте бронирований не найден пользователь (арендующий) " +
+                    "с ID = " + userId + " в БД.");
         }
-        User bookerFromDb = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("При " +
-                "получении списка бронирований не найден хозяин с ID = " + userId + " в БД."));
-        List<Booking> result = new ArrayList<>();
+        return BookingMapper.toBookingCountsDto(bookingRepository.countByBooker(userId, LocalDateTime.now()));
+    }
 
-        switch (bookingState) {
-            case ALL: {
-                result = bookingRepository.findAllByItem_OwnerOrderByStartDesc(bookerFromDb);
-                break;
-            }
-            case CURRENT: {
-                result = bookingRepository.findAllByItem_OwnerAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        bookerFromDb, nowDateTime, nowDateTime);
-                break;
-            }
-            case PAST: {
-                result = bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(
-                        bookerFromDb, nowDateTime);
-                break;
-            }
-            case FUTURE: {
-                result = bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(
-                        bookerFromDb, nowDateTime);
-                break;
-            }
-            case WAITING: {
-                result = bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(
-                        bookerFromDb, BookingState.WAITING);
-                break;
-            }
-            case REJECTED: {
-                result = bookingRepository.findAllByItem_OwnerAndStatusEqualsOrderByStartDesc(
-                        bookerFromDb, BookingState.REJECTED);
-                break;
+    /**
+     * Количество бронирований вещей хозяина по каждому состоянию.
+     *
+     * @param userId ID хозяина вещей.
+     * @return количество бронирований по состояниям.
+     */
+    @Override
+    public BookingCountsDto countByOwnerId(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При подсчёте бронирований не найден хозяин с ID = " + userId + " в БД.");
+        }
+        return BookingMapper.toBookingCountsDto(bookingRepository.countByOwner(userId, LocalDateTime.now()));
+    }
+
+    /**
+     * Выгрузка всех бронирований пользователя для сверки без постраничного вывода.
+     *
+     * @param userId ID пользователя.
+     * @param state  статус бронирования.
+     * @return выгрузка, читающая бронирования из БД потоком.
+     */
+    @Override
+    public BookingExport exportByUserId(Long userId, String state) {
+        BookingState bookingState = parseState(state);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При выгрузке бронирований не найден пользователь (арендующий) " +
+                    "с ID = " + userId + " в БД.");
+        }
+        return export(BookingSpecifications.byBooker(userId)
+                .and(BookingSpecifications.byState(bookingState, LocalDateTime.now())));
+    }
+
+    /**
+     * Выгрузка всех бронирований вещей хозяина для сверки без постраничного вывода.
+     *
+     * @param userId ID хозяина вещей.
+     * @param state  статус бронирования.
+     * @return выгрузка, читающая бронирования из БД потоком.
+     */
+    @Override
+    public BookingExport exportByOwnerId(Long userId, String state) {
+        BookingState bookingState = parseState(state);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("При выгрузке бронирований не найден хозяин с ID = " + userId + " в БД.");
+        }
+        return export(BookingSpecifications.byOwner(userId)
+                .and(BookingSpecifications.byState(bookingState, LocalDateTime.now())));
+    }
+
+    /**
+     * Выгрузка читается потоком в отдельной транзакции только для чтения,
+     * так как запись ответа происходит уже после выхода из метода контроллера.
+     */
+    private BookingExport export(Specification<Booking> spec) {
+        return consumer -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status ->
+                    bookingRepository.forEach(spec, BookingSpecifications.NEWEST_FIRST, consumer));
+        };
+    }
+
+    private BookingState parseState(String state) {
+        return BookingState.from(state)
+                .orElseThrow(() -> new ValidationException("Неизвестное состояние бронирования."));
+    }
+
+    /**
+     * Выборка страницы бронирований одним динамическим запросом,
+     * отсортированных по дате начала от более новых к более старым.
+     * Бронирования читаются проекцией сразу в DTO, на одну строку больше размера страницы,
+     * чтобы определить наличие следующей страницы. Если размер страницы не задан,
+     * возвращаются все бронирования, начиная с from, как до введения постраничного вывода.
+     *
+     * @param spec   условия выборки.
+     * @param from   индекс первого элемента.
+     * @param size   размер страницы (может быть null).
+     * @param cursor курсор предыдущей страницы.
+     * @return страница бронирований.
+     */
+    private Window<BookingDtoOutput> findPage(Specification<Booking> spec, Integer from, Integer size,
+                                              String cursor) {
+        final KeysetCursor after = after(from, cursor);
+        if (size == null) {
+            return KeysetCursor.window(bookingRepository.findDtoPage(spec, after, from, null), Integer.MAX_VALUE,
+                    booking -> new KeysetCursor(booking.getStart(), booking.getId()));
+        }
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным.");
+        }
+        List<BookingDtoOutput> rows = bookingRepository.findDtoPage(spec, after, from, size + 1);
+        return KeysetCursor.window(rows, size, booking -> new KeysetCursor(booking.getStart(), booking.getId()));
+    }
+
+    /**
+     * Ключ начала страницы: курсор (start_date, id), если он передан, иначе null и выборка по смещению from.
+     *
+     * @param from   индекс первого элемента.
+     * @param cursor курсор предыдущей страницы.
+     * @return ключ последнего бронирования предыдущей страницы либо null.
+     */
+    private KeysetCursor after(Integer from, String cursor) {
+        if (cursor != null && !cursor.isBlank()) {
+            return KeysetCursor.decode(cursor);
+        }
+        if (from < 0) {
+            throw new ValidationException("Индекс первого элемента не может быть отрицательным.");
+        }
+        return null;
+    }
+
+    /**
+     * Проверка перед переводом бронирования в статус APPROVED: нет ли у вещи другого активного
+     * бронирования на те же даты. Отклонённое бронирование отсутствует в индексе, а ограничение
+     * исключения есть только в PostgreSQL, поэтому проверка выполняется запросом к БД
+     * под блокировкой строки вещи, как и при создании бронирования.
+     */
+    private boolean overlapsActive(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        itemRepository.findByIdForUpdate(itemId);
+        return bookingRepository.existsOverlapping(itemId, booking.getId(), booking.getStart(), booking.getEnd(),
+                ItemBookingIndex.ACTIVE_STATUSES);
+    }
+
+    /**
+     * Блокировка вещей подтверждаемых бронирований одним запросом в порядке возрастания ID
+     * и чтение их активных бронирований в общем интервале дат.
+     *
+     * @param approvals бронирования, которые хозяин подтверждает.
+     * @return активные бронирования по ID вещи, по ID бронирования.
+     */
+    private Map<Long, Map<Long, BookingInterval>> lockActiveIntervals(List<Booking> approvals) {
+        Map<Long, Map<Long, BookingInterval>> active = new HashMap<>();
+        if (approvals.isEmpty()) {
+            return active;
+        }
+        Set<Long> itemIds = approvals.stream().map(booking -> booking.getItem().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        itemRepository.findAllByIdInForUpdate(itemIds);
+        LocalDateTime from = approvals.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = approvals.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        for (BookingInterval interval : bookingRepository.findActiveIntervals(itemIds, from, to,
+                ItemBookingIndex.ACTIVE_STATUSES)) {
+            active.computeIfAbsent(interval.itemId(), id -> new HashMap<>()).put(interval.id(), interval);
+        }
+        return active;
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
             }
-            default: {
-                throw new ValidationException("Неизвестное состояние бронирования.");
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION_STATE.equals(sqlException.getSQLState())) {
+                return true;
             }
         }
-
-        return result;
+        return false;
     }
 
     /**
@@ -255,16 +483,10 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException(message);
         }
 
-        List<Booking> bookings = item.getBookings();
-        if (!bookings.isEmpty()) {
-            for (Booking b : bookings) {
-                if (!(b.getEnd().isBefore(bookingDto.getStart()) ||
-                        b.getStart().isAfter(bookingDto.getStart()))) {
-                    String message = "Найдено пересечение дат бронирования на вещь с name = " + item.getName() + ".";
-                    log.debug(message);
-                    throw new ValidationException(message);
-                }
-            }
+        if (itemBookingIndex.hasOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            String message = "Найдено пересечение дат бронирования на вещь с name = " + item.getName() + ".";
+            log.debug(message);
+            throw new ValidationException(message);
         }
     }
 }
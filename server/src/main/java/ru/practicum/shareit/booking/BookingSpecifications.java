@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований для единого динамического запроса вместо набора производных методов.
+ * Запросы опираются на индексы (booker_id, start_date DESC, id DESC), (item_id, start_date DESC, id DESC),
+ * items(owner_id) и частичные индексы по статусу WAITING из schema.sql / schema-postgresql.sql.
+ */
+public class BookingSpecifications {
+
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("start"), Sort.Order.desc("id"));
+
+    private static final String ITEM = "item";
+
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(item(root).get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * Соединение с вещью, уже добавленное в запрос (в том числе через fetch), либо новое,
+     * чтобы таблица items не присоединялась к запросу дважды.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Booking, Item> item(Root<Booking> root) {
+        for (Fetch<Booking, ?> fetch : root.getFetches()) {
+            if (ITEM.equals(fetch.getAttribute().getName()) && fetch instanceof Join<?, ?> join) {
+                return (Join<Booking, Item>) join;
+            }
+        }
+        for (Join<Booking, ?> join : root.getJoins()) {
+            if (ITEM.equals(join.getAttribute().getName())) {
+                return (Join<Booking, Item>) join;
+            }
+        }
+        return root.join(ITEM);
+    }
+
+    /**
+     * Условие на состояние бронирования относительно текущего момента времени.
+     *
+     * @param state состояние бронирования.
+     * @param now   текущий момент времени.
+     */
+    public static Specification<Booking> byState(BookingState state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case ALL -> cb.conjunction();
+            case CURRENT -> cb.and(cb.lessThan(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            case PAST -> cb.lessThan(root.get("end"), now);
+            case FUTURE -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> cb.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), BookingStatus.REJECTED);
+        };
+    }
+}
@@ -1,5 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Optional;
+
 public enum BookingState {
-    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED;
+
+    /**
+     * Состояние по значению параметра state без учёта регистра; пустое значение означает ALL.
+     */
+    public static Optional<BookingState> from(String stringState) {
+        if (stringState == null || stringState.isBlank()) {
+            return Optional.of(ALL);
+        }
+        for (BookingState state : values()) {
+            if (state.name().equalsIgnoreCase(stringState.trim())) {
+                return Optional.of(state);
+            }
+        }
+        return Optional.empty();
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Consumer;
+
+public interface BookingStreamRepository {
+
+    /**
+     * Потоковое чтение бронирований без материализации всего результата в памяти.
+     * Вызывается внутри транзакции; прочитанные бронирования отсоединяются от контекста
+     * персистентности после обработки.
+     *
+     * @param spec     условия выборки.
+     * @param sort     порядок сортировки.
+     * @param consumer обработчик бронирования.
+     */
+    void forEach(Specification<Booking> spec, Sort sort, Consumer<Booking> consumer);
+}
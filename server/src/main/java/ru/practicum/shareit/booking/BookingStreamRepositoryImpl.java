@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BookingStreamRepositoryImpl implements BookingStreamRepository {
+
+    static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Бронирования читаются курсором порциями по FETCH_SIZE строк в режиме только для чтения,
+     * вещь и арендатор подгружаются тем же запросом. Контекст персистентности очищается
+     * после обработки каждой порции, поэтому расход памяти не зависит от количества строк.
+     */
+    @Override
+    public void forEach(Specification<Booking> spec, Sort sort, Consumer<Booking> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        root.fetch("item");
+        root.fetch("booker");
+        query.select(root)
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+        try (Stream<Booking> bookings = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Booking> iterator = bookings.iterator();
+            int read = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                if (++read % FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.common.KeysetCursor;
+
+import java.util.List;
+
+public interface BookingViewRepository {
+
+    /**
+     * Страница бронирований, отсортированных по дате начала от более новых к более старым,
+     * в виде DTO без загрузки сущностей.
+     *
+     * @param spec   условия выборки.
+     * @param after  ключ (start_date, id) последнего бронирования предыдущей страницы (может быть null).
+     * @param offset количество пропускаемых строк (используется, если ключ не передан).
+     * @param limit  максимальное количество строк (null — без ограничения).
+     * @return бронирования страницы.
+     */
+    List<BookingDtoOutput> findDtoPage(Specification<Booking> spec, KeysetCursor after, int offset, Integer limit);
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Поля бронирования, вещи и арендатора выбираются одним запросом через конструктор
+     * {@link BookingDtoOutput}, поэтому сущности не попадают в контекст персистентности
+     * и не читаются лишние колонки и связи. Следующая страница по ключу выбирается условием
+     * start_date < :start or (start_date = :start and id < :id) вместо OFFSET.
+     */
+    @Override
+    public List<BookingDtoOutput> findDtoPage(Specification<Booking> spec, KeysetCursor after, int offset, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoOutput> query = cb.createQuery(BookingDtoOutput.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+        query.select(cb.construct(BookingDtoOutput.class,
+                root.get("id"), root.get("start"), root.get("end"), root.get("status"),
+                item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                booker.get("id"), booker.get("name"), booker.get("email")));
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (after != null) {
+            Predicate keyset = cb.or(cb.lessThan(root.<LocalDateTime>get("start"), after.key()),
+                    cb.and(cb.equal(root.get("start"), after.key()), cb.lessThan(root.get("id"), after.id())));
+            where = where == null ? keyset : cb.and(where, keyset);
+        }
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(BookingSpecifications.NEWEST_FIRST, root, cb));
+        TypedQuery<BookingDtoOutput> page = entityManager.createQuery(query)
+                .setFirstResult(after == null ? offset : 0);
+        if (limit != null) {
+            page.setMaxResults(limit);
+        }
+        return page.getResultList();
+    }
+}
@@ -0,0 +1,247 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс активных бронирований по вещам.
+ * Для каждой вещи хранится упорядоченная по дате начала шкала интервалов активных бронирований
+ * (статусы WAITING и APPROVED), поэтому проверка пересечения дат просматривает только интервалы
+ * рядом с проверяемым, а не всю историю бронирований вещи. Пересекающиеся интервалы (например,
+ * унаследованные данные без ограничения в БД) не отбрасываются, а хранятся отдельно и попадают в журнал.
+ * Шкала вещи загружается из БД при первом обращении и далее поддерживается при создании
+ * и обновлении бронирований.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingIndex {
+
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final Comparator<SlotKey> SLOT_ORDER = Comparator.comparing(SlotKey::start)
+            .thenComparingLong(SlotKey::bookingId);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Проверка, пересекается ли интервал [start, end] с каким-либо активным бронированием вещи.
+     *
+     * @param itemId ID вещи.
+     * @param start  начало интервала.
+     * @param end    окончание интервала.
+     * @return true, если найдено пересечение.
+     */
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return timeline(itemId).hasOverlap(start, end);
+    }
+
+    /**
+     * Свободные промежутки вещи в интервале [from, to] по шкале активных бронирований.
+     * Границы свободных промежутков совпадают с границами соседних бронирований.
+     *
+     * @param itemId ID вещи.
+     * @param from   начало интервала.
+     * @param to     окончание интервала.
+     * @return упорядоченный список свободных промежутков.
+     */
+    public List<FreeSlotDto> freeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return timeline(itemId).freeSlots(from, to);
+    }
+
+    /**
+     * Добавить бронирование в индекс либо убрать его оттуда, если бронирование стало неактивным.
+     * При откате текущей транзакции шкала вещи сбрасывается и будет перечитана из БД.
+     *
+     * @param booking сохранённое бронирование.
+     */
+    public void update(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Timeline timeline = timeline(itemId);
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            Long conflict = timeline.put(booking.getId(), booking.getStart(), booking.getEnd());
+            if (conflict != null) {
+                log.warn("Бронирование [ {} ] вещи [ {} ] пересекается с активным бронированием [ {} ].",
+                        booking.getId(), itemId, conflict);
+            }
+        } else {
+            timeline.remove(booking.getId(), booking.getStart());
+        }
+        evictOnRollback(itemId);
+    }
+
+    /**
+     * Сбросить шкалу вещи (например, при удалении вещи).
+     *
+     * @param itemId ID вещи.
+     */
+    public void evict(Long itemId) {
+        timelines.remove(itemId);
+    }
+
+    /**
+     * Сбросить весь индекс (например, при каскадном удалении бронирований пользователя).
+     */
+    public void evictAll() {
+        timelines.clear();
+    }
+
+    private Timeline timeline(Long itemId) {
+        Timeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            return timeline;
+        }
+        Timeline loaded = new Timeline();
+        for (Booking b : bookingRepository.findAllByItem_IdAndStatusIn(itemId, ACTIVE_STATUSES)) {
+            Long conflict = loaded.put(b.getId(), b.getStart(), b.getEnd());
+            if (conflict != null) {
+                log.warn("В БД бронирование [ {} ] вещи [ {} ] пересекается с активным бронированием [ {} ].",
+                        b.getId(), itemId, conflict);
+            }
+        }
+        log.debug("Загружена шкала бронирований вещи с ID = [ {} ] : [ {} ].", itemId, loaded.size());
+        timeline = timelines.putIfAbsent(itemId, loaded);
+        return timeline == null ? loaded : timeline;
+    }
+
+    private void evictOnRollback(Long itemId) {
+        TransactionHooks.afterRollback(() -> evict(itemId));
+    }
+
+    /**
+     * Шкала интервалов одной вещи, упорядоченная по дате начала и ID бронирования.
+     * Интервалы на шкале не пересекаются, поэтому с проверяемым интервалом может пересечься только
+     * ближайший интервал, начавшийся раньше него, и интервалы, начавшиеся внутри него: поиск занимает
+     * O(log n) плюс количество найденных интервалов. Интервал, пересекающийся с уже лежащими на шкале
+     * (унаследованные данные), хранится в отдельном списке, который просматривается целиком и обычно пуст;
+     * после удаления мешавшего ему интервала он переносится на шкалу.
+     */
+    private static final class Timeline {
+
+        private final NavigableMap<SlotKey, LocalDateTime> slots = new TreeMap<>(SLOT_ORDER);
+        private final Map<SlotKey, LocalDateTime> overlapping = new HashMap<>();
+
+        synchronized boolean hasOverlap(LocalDateTime start, LocalDateTime end) {
+            return conflict(start, end, null) != null;
+        }
+
+        synchronized List<FreeSlotDto> freeSlots(LocalDateTime from, LocalDateTime to) {
+            List<Map.Entry<SlotKey, LocalDateTime>> intervals = window(from, to);
+            if (!overlapping.isEmpty()) {
+                for (Map.Entry<SlotKey, LocalDateTime> entry : overlapping.entrySet()) {
+                    if (!entry.getKey().start().isAfter(to) && !entry.getValue().isBefore(from)) {
+                        intervals.add(entry);
+                    }
+                }
+                intervals.sort(Map.Entry.comparingByKey(SLOT_ORDER));
+            }
+            List<FreeSlotDto> result = new ArrayList<>();
+            LocalDateTime cursor = from;
+            for (Map.Entry<SlotKey, LocalDateTime> entry : intervals) {
+                LocalDateTime end = entry.getValue();
+                if (end.isBefore(cursor)) {
+                    continue;
+                }
+                if (entry.getKey().start().isAfter(cursor)) {
+                    result.add(new FreeSlotDto(cursor, entry.getKey().start()));
+                }
+                cursor = end;
+            }
+            if (cursor.isBefore(to)) {
+                result.add(new FreeSlotDto(cursor, to));
+            }
+            return result;
+        }
+
+        /**
+         * Добавить интервал бронирования.
+         *
+         * @return ID бронирования, с которым пересекается добавленный интервал, либо null.
+         */
+        synchronized Long put(long bookingId, LocalDateTime start, LocalDateTime end) {
+            SlotKey key = new SlotKey(start, bookingId);
+            slots.remove(key);
+            overlapping.remove(key);
+            if (slotConflict(start, end, bookingId) == null) {
+                slots.put(key, end);
+            } else {
+                overlapping.put(key, end);
+            }
+            SlotKey conflict = conflict(start, end, bookingId);
+            return conflict == null ? null : conflict.bookingId();
+        }
+
+        synchronized void remove(long bookingId, LocalDateTime start) {
+            SlotKey key = new SlotKey(start, bookingId);
+            if (overlapping.remove(key) != null || slots.remove(key) == null) {
+                return;
+            }
+            for (Map.Entry<SlotKey, LocalDateTime> entry : List.copyOf(overlapping.entrySet())) {
+                SlotKey waiting = entry.getKey();
+                if (slotConflict(waiting.start(), entry.getValue(), waiting.bookingId()) == null) {
+                    overlapping.remove(waiting);
+                    slots.put(waiting, entry.getValue());
+                }
+            }
+        }
+
+        synchronized int size() {
+            return slots.size() + overlapping.size();
+        }
+
+        private SlotKey conflict(LocalDateTime start, LocalDateTime end, Long exceptBookingId) {
+            SlotKey conflict = slotConflict(start, end, exceptBookingId);
+            if (conflict != null) {
+                return conflict;
+            }
+            for (Map.Entry<SlotKey, LocalDateTime> entry : overlapping.entrySet()) {
+                if (!entry.getKey().start().isAfter(end) && !entry.getValue().isBefore(start)
+                        && !Long.valueOf(entry.getKey().bookingId()).equals(exceptBookingId)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        private SlotKey slotConflict(LocalDateTime start, LocalDateTime end, Long exceptBookingId) {
+            for (Map.Entry<SlotKey, LocalDateTime> entry : window(start, end)) {
+                if (!Long.valueOf(entry.getKey().bookingId()).equals(exceptBookingId)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Интервалы шкалы, пересекающиеся с [from, to]: ближайший интервал, начавшийся раньше from,
+         * если он не закончился до from, и все интервалы, начавшиеся в [from, to].
+         */
+        private List<Map.Entry<SlotKey, LocalDateTime>> window(LocalDateTime from, LocalDateTime to) {
+            List<Map.Entry<SlotKey, LocalDateTime>> result = new ArrayList<>();
+            SlotKey lower = new SlotKey(from, Long.MIN_VALUE);
+            Map.Entry<SlotKey, LocalDateTime> before = slots.lowerEntry(lower);
+            if (before != null && !before.getValue().isBefore(from)) {
+                result.add(before);
+            }
+            result.addAll(slots.subMap(lower, true, new SlotKey(to, Long.MAX_VALUE), true).entrySet());
+            return result;
+        }
+    }
+
+    private record SlotKey(LocalDateTime start, long bookingId) {
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserChangeCounter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поддержка последнего и следующего бронирования вещи (items.last_booking_id / items.next_booking_id).
+ * Значения обновляются при создании, подтверждении и отклонении бронирований,
+ * а периодический обход сдвигает их вперёд по мере наступления дат начала и окончания бронирований.
+ * Следующее бронирование — ближайшее по дате начала бронирование в статусе WAITING или APPROVED,
+ * последнее — завершившееся позже остальных бронирование в статусе APPROVED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearestBookingTracker {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserChangeCounter userChangeCounter;
+
+    /**
+     * Момент предыдущего обхода; до начальной загрузки при запуске приложения обход не выполняется.
+     */
+    private volatile LocalDateTime lastSweep;
+
+    /**
+     * Учесть созданное бронирование или изменение его статуса.
+     * Вызывается внутри транзакции, в которой изменяется бронирование.
+     *
+     * @param booking созданное или обновлённое бронирование.
+     */
+    public void onChanged(Booking booking) {
+        Item item = booking.getItem();
+        LocalDateTime now = LocalDateTime.now();
+        userChangeCounter.touch(item.getOwner().getId());
+        if (isNextCandidate(booking, now)) {
+            Booking next = item.getNextBooking();
+            if (next == null || booking.getStart().isBefore(next.getStart())) {
+                item.setNextBooking(booking);
+            }
+        } else if (isSame(booking, item.getNextBooking())) {
+            item.setNextBooking(findNext(item.getId(), now));
+        }
+        if (isLastCandidate(booking, now)) {
+            Booking last = item.getLastBooking();
+            if (last == null || booking.getEnd().isAfter(last.getEnd())) {
+                item.setLastBooking(booking);
+            }
+        } else if (isSame(booking, item.getLastBooking())) {
+            item.setLastBooking(findLast(item.getId(), now));
+        }
+    }
+
+    /**
+     * Сдвиг последнего и следующего бронирования для вещей, у которых с прошлого обхода
+     * началось следующее бронирование или завершилось подтверждённое бронирование.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.nearest-sweep-interval}")
+    @Transactional
+    public void sweep() {
+        LocalDateTime from = lastSweep;
+        if (from == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Item> items = new HashSet<>(itemRepository.findAllWithNextBookingStartedBefore(now));
+        items.addAll(bookingRepository.findItemsWithBookingsEndedBetween(BookingStatus.APPROVED, from, now));
+        refresh(items, now);
+        lastSweep = now;
+    }
+
+    /**
+     * Начальная загрузка при запуске приложения: обновляются только вещи, у которых следующее бронирование
+     * уже началось или есть подтверждённое бронирование, завершившееся позже сохранённого последнего.
+     * Дальнейшие обходы рассматривают лишь бронирования, завершившиеся после момента загрузки.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Item> items = new HashSet<>(itemRepository.findAllWithNextBookingStartedBefore(now));
+        items.addAll(bookingRepository.findItemsWithStaleLastBooking(BookingStatus.APPROVED, now));
+        refresh(items, now);
+        lastSweep = now;
+    }
+
+    private void refresh(Set<Item> items, LocalDateTime now) {
+        for (Item item : items) {
+            item.setNextBooking(findNext(item.getId(), now));
+            item.setLastBooking(findLast(item.getId(), now));
+            userChangeCounter.touch(item.getOwner().getId());
+        }
+        if (!items.isEmpty()) {
+            log.info("Обновлены последнее и следующее бронирования у вещей в количестве [ {} ].", items.size());
+        }
+    }
+
+    private Booking findNext(Long itemId, LocalDateTime now) {
+        return bookingRepository.findFirstByItem_IdAndStartAfterAndStatusInOrderByStartAsc(itemId, now,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED)).orElse(null);
+    }
+
+    private Booking findLast(Long itemId, LocalDateTime now) {
+        return bookingRepository.findFirstByItem_IdAndEndBeforeAndStatusOrderByEndDesc(itemId, now,
+                BookingStatus.APPROVED).orElse(null);
+    }
+
+    private static boolean isNextCandidate(Booking booking, LocalDateTime now) {
+        return booking.getStart().isAfter(now)
+                && (booking.getStatus() == BookingStatus.WAITING || booking.getStatus() == BookingStatus.APPROVED);
+    }
+
+    private static boolean isLastCandidate(Booking booking, LocalDateTime now) {
+        return booking.getEnd().isBefore(now) && booking.getStatus() == BookingStatus.APPROVED;
+    }
+
+    private static boolean isSame(Booking booking, Booking other) {
+        return other != null && booking.getId().equals(other.getId());
+    }
+}
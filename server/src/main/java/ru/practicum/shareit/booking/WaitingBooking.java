@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция ожидающего подтверждения бронирования для планировщика истечения.
+ */
+public record WaitingBooking(Long id, Long itemId, LocalDateTime start) {
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасный ограниченный по размеру LRU-кеш. Каждый сброс увеличивает номер поколения,
+ * и значение, вычисленное одновременно со сбросом, в кеш не сохраняется: иначе в кеш могло бы
+ * попасть значение, прочитанное из БД до фиксации изменения. Размер 0 отключает кеширование.
+ * Если задано имя метрики, попадания и промахи публикуются в ней с тегом result,
+ * а количество записей — в метрике с суффиксом .size.
+ *
+ * @param <K> ключ.
+ * @param <V> значение.
+ */
+public class BoundedLruCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    private long generation;
+
+    public BoundedLruCache(int maxSize) {
+        this(maxSize, null, null);
+    }
+
+    public BoundedLruCache(int maxSize, MeterRegistry meterRegistry, String metric, String description,
+                           String sizeDescription) {
+        this(maxSize, counter(meterRegistry, metric, "hit", description),
+                counter(meterRegistry, metric, "miss", description));
+        Gauge.builder(metric + ".size", this, BoundedLruCache::size)
+                .description(sizeDescription)
+                .register(meterRegistry);
+    }
+
+    private BoundedLruCache(int maxSize, Counter hits, Counter misses) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > BoundedLruCache.this.maxSize;
+            }
+        };
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Значение из кеша либо, при промахе, вычисленное и сохранённое в кеш.
+     * Значение null не кешируется.
+     *
+     * @param key    ключ.
+     * @param loader вычисление значения при промахе.
+     * @return значение.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long started;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                recordHit();
+                return cached;
+            }
+            started = generation;
+        }
+        recordMiss();
+        V value = loader.apply(key);
+        put(key, value, started);
+        return value;
+    }
+
+    /**
+     * Значение из кеша без учёта в метриках.
+     *
+     * @param key ключ.
+     * @return значение либо null.
+     */
+    public synchronized V getIfPresent(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Номер поколения, который нужно запомнить перед вычислением значения и передать в put.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Сохранить значение, если с момента получения номера поколения кеш не сбрасывался.
+     *
+     * @param key        ключ.
+     * @param value      значение (null не сохраняется).
+     * @param generation номер поколения до вычисления значения.
+     */
+    public synchronized void put(K key, V value, long generation) {
+        if (value != null && this.generation == generation && maxSize > 0) {
+            entries.put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> affected) {
+        generation++;
+        entries.keySet().removeIf(affected);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public void recordHit() {
+        if (hits != null) {
+            hits.increment();
+        }
+    }
+
+    public void recordMiss() {
+        if (misses != null) {
+            misses.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String metric, String result, String description) {
+        return Counter.builder(metric).tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор постраничного вывода по ключу (дата, id), от более новых записей к более старым.
+ * Клиент получает курсор следующей страницы в заголовке X-Next-Cursor и передаёт его обратно без изменений,
+ * поэтому следующая страница выбирается поиском по индексу, а не через OFFSET.
+ * Используется для бронирований (start_date, id), комментариев и запросов вещей (created, id).
+ */
+public record KeysetCursor(LocalDateTime key, Long id) {
+
+    public static final String HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = ",";
+    private static final String KEY = "key";
+    private static final String ID = "id";
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 2);
+            return new KeysetCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new ValidationException("Некорректный курсор постраничного вывода: " + cursor);
+        }
+    }
+
+    /**
+     * Страница из строк, прочитанных на одну больше размера страницы: лишняя строка
+     * в страницу не попадает и лишь показывает, что следующая страница есть.
+     *
+     * @param rows     прочитанные строки.
+     * @param limit    размер страницы.
+     * @param cursorOf ключ строки.
+     */
+    public static <T> Window<T> window(List<T> rows, int limit, Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content, i -> cursorOf.apply(content.get(i)).toScrollPosition(), hasNext);
+    }
+
+    /**
+     * Курсор следующей страницы для заголовка ответа.
+     *
+     * @param window страница, построенная методом window.
+     * @return закодированный курсор либо пустое значение для последней страницы.
+     */
+    public static Optional<String> next(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, ?> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        return Optional.of(new KeysetCursor((LocalDateTime) keys.get(KEY), (Long) keys.get(ID)).encode());
+    }
+
+    public String encode() {
+        String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private KeysetScrollPosition toScrollPosition() {
+        return ScrollPosition.forward(Map.of(KEY, key, ID, id));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.common.BoundedLruCache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проверка права пользователя оставить комментарий к вещи: у пользователя должно быть
+ * завершённое бронирование этой вещи. Проверка выполняется запросом существования
+ * по индексу (item_id, booker_id, end_date), а положительный результат запоминается
+ * в ограниченном по размеру LRU-кеше, так как завершённое бронирование уже не перестанет быть завершённым.
+ * Отрицательный результат не кешируется: бронирование может завершиться позже.
+ */
+@Component
+public class CommentEligibilityCache {
+
+    private final BookingRepository bookingRepository;
+    private final BoundedLruCache<Key, Boolean> eligible;
+
+    public CommentEligibilityCache(BookingRepository bookingRepository,
+                                   @Value("${shareit.item.comment-eligibility.cache.max-size}") int maxSize) {
+        this.bookingRepository = bookingRepository;
+        this.eligible = new BoundedLruCache<>(maxSize);
+    }
+
+    /**
+     * Проверка, брал ли пользователь вещь в аренду (есть бронирование, завершившееся до текущего момента).
+     *
+     * @param bookerId ID пользователя.
+     * @param itemId   ID вещи.
+     * @return true, если пользователь может оставить комментарий.
+     */
+    public boolean isEligible(Long bookerId, Long itemId) {
+        return eligible.get(new Key(bookerId, itemId), this::load) != null;
+    }
+
+    /**
+     * Запрос существования завершённого бронирования; отрицательный результат возвращается как null,
+     * чтобы он не попал в кеш.
+     */
+    private Boolean load(Key key) {
+        boolean result = bookingRepository.existsByItem_IdAndBooker_IdAndEndBefore(key.itemId(), key.bookerId(),
+                LocalDateTime.now());
+        return result ? Boolean.TRUE : null;
+    }
+
+    private record Key(Long bookerId, Long itemId) {
+    }
+}
@@ -1,9 +1,44 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-}
\ No newline at end of file
+    /**
+     * Последние комментарии вещи, от более новых к более старым.
+     */
+    @Query("select c from Comment c join fetch c.item left join fetch c.user "
+            + "where c.item.id = :itemId order by c.created desc, c.id desc")
+    List<Comment> findLatestByItemId(@Param("itemId") Long itemId, Limit limit);
+
+    /**
+     * Не более limit последних комментариев каждой из вещей одним запросом: комментарии нумеруются
+     * оконной функцией в пределах вещи по индексу (item_id, created, id).
+     */
+    @Query(value = "select c.* from (select c.*, row_number() over (partition by c.item_id "
+            + "order by c.created desc, c.id desc) as rn from comments c where c.item_id in (:itemIds)) c "
+            + "where c.rn <= :limit order by c.item_id, c.created desc, c.id desc",
+            nativeQuery = true)
+    List<Comment> findLatestByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    /**
+     * Комментарии вещи, следующие за комментарием с ключом (created, id), от более новых к более старым.
+     * Страница выбирается поиском по индексу (item_id, created, id), а не через OFFSET.
+     */
+    @Query("select c from Comment c join fetch c.item left join fetch c.user "
+            + "where c.item.id = :itemId and (c.created < :created or (c.created = :created and c.id < :id)) "
+            + "order by c.created desc, c.id desc")
+    List<Comment> findLatestByItemIdBefore(@Param("itemId") Long itemId,
+                                           @Param("created") LocalDateTime created,
+                                           @Param("id") Long id,
+                                           Limit limit);
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск вещей средствами PostgreSQL: полнотекстовый поиск по столбцу items.search_vector,
+ * вхождение подстроки и нечёткое совпадение слов (pg_trgm) для устойчивости к опечаткам.
+ * Результаты упорядочиваются по релевантности. Индексы описаны в schema-postgresql.sql.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${shareit.item.search.mode}' == 'database' and '${spring.sql.init.platform}' == 'postgresql'")
+public class FullTextItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int offset, Integer limit) {
+        String pattern = ItemSearch.escapeLike(text.toLowerCase(Locale.ROOT));
+        return itemRepository.searchIdsByRelevance(text, pattern, offset,
+                limit == null ? Integer.MAX_VALUE : limit);
+    }
+
+    /**
+     * Совпадение по словоформам и нечёткое совпадение не проверяются на стороне приложения,
+     * поэтому изменение любой доступной вещи считается затрагивающим запрос.
+     */
+    @Override
+    public boolean mayMatch(String query, String name, String description) {
+        return true;
+    }
+}
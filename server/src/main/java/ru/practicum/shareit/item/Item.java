@@ -22,8 +22,15 @@ import java.util.List;
 @Entity
 @Table(name = "items")
 public class Item {
+    /**
+     * ID выдаются из последовательности блоками по 50, поэтому вставки вещей
+     * (в том числе массовый импорт) выполняются пакетами JDBC (hibernate.jdbc.batch_size).
+     * Это касается всех вещей, а не только импортированных: ID возрастают, но идут с пропусками
+     * (неиспользованный остаток блока теряется при перезапуске сервера и при откате транзакции).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 100)
@@ -46,7 +53,24 @@ public class Item {
     @OneToMany(mappedBy = "item")
     private List<Comment> comments;
 
+    /**
+     * Количество комментариев вещи. Поддерживается запросом при добавлении комментария
+     * и не перезаписывается при сохранении вещи.
+     */
+    @Column(name = "comments_count", insertable = false, updatable = false)
+    private Integer commentsCount;
+
     @OneToMany(mappedBy = "item")
     private List<Booking> bookings;
 
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
 }
\ No newline at end of file
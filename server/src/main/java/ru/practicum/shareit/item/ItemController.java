@@ -1,40 +1,92 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.FreeSlotDto;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.user.UserChangeCounter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemViewCache itemViewCache;
+    private final ObjectMapper objectMapper;
+    private final UserChangeCounter userChangeCounter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemDtoOutput addItem(@RequestBody ItemDtoInput itemDto,
                                  @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        return ItemMapper.toItemDtoOutput(itemService.addItem(idUser, itemDto), idUser);
+        return ItemMapper.toItemDtoOutput(itemService.addItem(idUser, itemDto), idUser, List.of());
+    }
+
+    /**
+     * Массовый импорт вещей пользователя. Тело — JSON-массив либо NDJSON (одна вещь в строке);
+     * вещи читаются из тела потоком и сохраняются в одной транзакции.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemDtoShort> importItems(InputStream body,
+                                          @RequestHeader(value = "X-Sharer-User-Id") Long idUser) throws IOException {
+        return itemService.importItems(idUser, objectMapper.readerFor(ItemDtoInput.class).readValues(body));
     }
 
     @PatchMapping("/{idItem}")
     public ItemDtoOutput updateItem(@PathVariable Long idItem,
                                     @RequestBody ItemDtoInput itemDto,
                                     @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        return ItemMapper.toItemDtoOutput(itemService.updateItem(idUser, idItem, itemDto), idUser);
+        Item item = itemService.updateItem(idUser, idItem, itemDto);
+        return ItemMapper.toItemDtoOutput(item, idUser, itemService.getLatestComments(item.getId()));
     }
 
+    /**
+     * Получение вещи. Представление для пользователей, не являющихся хозяином вещи,
+     * отдаётся из кеша уже сериализованным в JSON.
+     */
     @GetMapping("/{idItem}")
-    public ItemDtoOutput getItemById(@PathVariable Long idItem,
-                                     @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        return ItemMapper.toItemDtoOutput(itemService.getItemById(idItem), idUser);
+    public ResponseEntity<byte[]> getItemById(@PathVariable Long idItem,
+                                              @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(itemViewCache.get(idItem, idUser, () -> ItemMapper.toItemDtoOutput(
+                        itemService.getItemById(idItem), idUser, itemService.getLatestComments(idItem))));
     }
 
+    @GetMapping("/{idItem}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable Long idItem,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getFreeSlots(idItem, from, to);
+    }
+
+    /**
+     * Список вещей владельца с условным GET: при совпадении If-None-Match с версией данных
+     * пользователя возвращается 304 без чтения из БД.
+     */
     @GetMapping
-    public List<ItemDtoOutput> getAllItemsByUser(@RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        return itemService.getAllItems(idUser).stream()
-                .map(item -> ItemMapper.toItemDtoOutput(item, idUser)).toList();
+    public List<ItemDtoOutput> getAllItemsByUser(@RequestHeader(value = "X-Sharer-User-Id") Long idUser,
+                                                 WebRequest request) {
+        if (request.checkNotModified(userChangeCounter.etag(idUser, request))) {
+            return null;
+        }
+        return toItemDtoOutputs(itemService.getAllItems(idUser), idUser);
     }
 
     @DeleteMapping("/{idItem}")
@@ -45,9 +97,45 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDtoOutput> searchItemsByText(@RequestParam String text,
+                                                 @RequestParam(defaultValue = "0") Integer from,
+                                                 @RequestParam(required = false) Integer size,
                                                  @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
-        return itemService.searchItems(text).stream()
-                .map(item -> ItemMapper.toItemDtoOutput(item, idUser)).toList();
+        return toItemDtoOutputs(itemService.searchItems(text, from, size), idUser);
+    }
+
+    /**
+     * Подсказки названий доступных вещей по началу названия для поля поиска.
+     */
+    @GetMapping("/suggest")
+    public List<ItemSuggestionDto> suggestItems(@RequestParam String prefix,
+                                                @RequestParam(defaultValue = "10") Integer size,
+                                                @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        return itemService.suggestItems(prefix, size);
+    }
+
+    /**
+     * Вещи, которые чаще всего бронировали вместе с данной вещью («вместе с этой вещью бронируют»).
+     */
+    @GetMapping("/{idItem}/similar")
+    public List<ItemDtoShort> getSimilarItems(@PathVariable Long idItem,
+                                              @RequestParam(defaultValue = "10") Integer size,
+                                              @RequestHeader(value = "X-Sharer-User-Id") Long idUser) {
+        return itemService.getSimilarItems(idItem, size).stream().map(ItemMapper::toItemDtoShort).toList();
+    }
+
+    /**
+     * Постраничное получение комментариев вещи, от более новых к более старым.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor и передаётся в параметре cursor.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDtoShort>> getComments(@PathVariable Long itemId,
+                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        Window<Comment> window = itemService.getComments(itemId, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        KeysetCursor.next(window).ifPresent(next -> response.header(KeysetCursor.HEADER, next));
+        return response.body(window.stream().map(CommentMapper::toCommentDtoShort).toList());
     }
 
     @PostMapping("/{itemId}/comment")
@@ -56,4 +144,14 @@ public class ItemController {
                                              @RequestBody CommentDto commentDto) {
         return CommentMapper.toCommentDtoOutput((itemService.saveComment(userId, itemId, commentDto)));
     }
+
+    /**
+     * Представления списка вещей; последние комментарии всех вещей читаются одним запросом.
+     */
+    private List<ItemDtoOutput> toItemDtoOutputs(List<Item> items, Long idUser) {
+        Map<Long, List<Comment>> comments = itemService.getLatestComments(items.stream().map(Item::getId).toList());
+        return items.stream()
+                .map(item -> ItemMapper.toItemDtoOutput(item, idUser, comments.getOrDefault(item.getId(), List.of())))
+                .toList();
+    }
 }
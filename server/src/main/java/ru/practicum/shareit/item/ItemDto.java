@@ -28,6 +28,8 @@ public class ItemDto {
 
     private List<Comment> comments;
 
+    private Integer commentsCount;
+
     private List<Booking> bookings;
 
     private Booking lastBooking;
@@ -28,7 +28,7 @@ public class ItemDtoOutput {
 
     private List<CommentDtoShort> comments;
 
-    private List<BookingDtoShort> bookings;
+    private Integer commentsCount;
 
     private BookingDtoShort lastBooking;
 
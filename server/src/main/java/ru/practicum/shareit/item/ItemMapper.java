@@ -1,21 +1,22 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.request.RequestMapper;
 import ru.practicum.shareit.user.UserMapper;
 
-import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Component
 public class ItemMapper {
 
+    /**
+     * Количество последних комментариев, встраиваемых в представление вещи.
+     * Остальные комментарии доступны постранично через GET /items/{id}/comments.
+     */
+    public static final int COMMENTS_PREVIEW_SIZE = 10;
+
     public static ItemDto toItemDto(Item item) {
         if (item == null) {
             return null;
@@ -29,12 +30,22 @@ public class ItemMapper {
         itemDto.setOwner(item.getOwner());
         itemDto.setRequest(RequestMapper.toRequestDto(item.getRequest()));
         itemDto.setComments(item.getComments());
+        itemDto.setCommentsCount(item.getCommentsCount());
         itemDto.setBookings(item.getBookings());
+        itemDto.setLastBooking(item.getLastBooking());
+        itemDto.setNextBooking(item.getNextBooking());
 
         return itemDto;
     }
 
-    public static ItemDtoOutput toItemDtoOutput(Item item, Long userId) {
+    /**
+     * Представление вещи для пользователя.
+     *
+     * @param item     вещь.
+     * @param userId   ID пользователя, запрашивающего вещь.
+     * @param comments последние комментарии вещи (не более COMMENTS_PREVIEW_SIZE), прочитанные отдельным запросом.
+     */
+    public static ItemDtoOutput toItemDtoOutput(Item item, Long userId, List<Comment> comments) {
         if (item == null) {
             return null;
         }
@@ -46,25 +57,12 @@ public class ItemMapper {
         itemDto.setAvailable(item.getAvailable());
         itemDto.setOwner(UserMapper.toUserDtoShort(item.getOwner()));
         itemDto.setRequest(RequestMapper.toRequestDto(item.getRequest()));
-        List<Comment> comments = Optional.ofNullable(item.getComments()).orElse(Collections.emptyList());
-        if (!comments.isEmpty()) {
-            itemDto.setComments(comments.stream().map(CommentMapper::toCommentDtoShort).toList());
+        itemDto.setComments(comments.stream().map(CommentMapper::toCommentDtoShort).toList());
+        itemDto.setCommentsCount(Optional.ofNullable(item.getCommentsCount()).orElse(0));
+        if (itemDto.getOwner().getId().equals(userId)) {
+            itemDto.setLastBooking(BookingMapper.toBookingDtoShort(item.getLastBooking()));
+            itemDto.setNextBooking(BookingMapper.toBookingDtoShort(item.getNextBooking()));
         } else {
-            itemDto.setComments(Collections.emptyList());
-        }
-        List<Booking> bookings = Optional.ofNullable(item.getBookings()).orElse(Collections.emptyList());
-        if (!bookings.isEmpty()) {
-            if (itemDto.getOwner().getId().equals(userId)) {
-                itemDto.setBookings(bookings.stream().map(BookingMapper::toBookingDtoShort).toList());
-                itemDto.setLastBooking(BookingMapper.toBookingDtoShort(findLastBooking(bookings)));
-                itemDto.setNextBooking(BookingMapper.toBookingDtoShort(findNextBooking(bookings)));
-            } else {
-                itemDto.setBookings(Collections.emptyList());
-                itemDto.setLastBooking(null);
-                itemDto.setNextBooking(null);
-            }
-        } else {
-            itemDto.setBookings(Collections.emptyList());
             itemDto.setLastBooking(null);
             itemDto.setNextBooking(null);
         }
@@ -100,6 +98,13 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDtoRequest toItemDtoRequest(RequestedItem item) {
+        if (item == null) {
+            return null;
+        }
+        return new ItemDtoRequest(item.itemId(), item.name(), item.ownerId(), item.ownerName());
+    }
+
     public static Item toItem(ItemDto itemDto) {
         Item item = new Item();
 
@@ -132,11 +137,14 @@ public class ItemMapper {
                 item.setComments(itemDto.getComments());
             }
         }
+        item.setCommentsCount(itemDto.getCommentsCount());
         if (itemDto.getBookings() != null) {
             if (!itemDto.getBookings().isEmpty()) {
                 item.setBookings(itemDto.getBookings());
             }
         }
+        item.setLastBooking(itemDto.getLastBooking());
+        item.setNextBooking(itemDto.getNextBooking());
 
         return item;
     }
@@ -147,6 +155,9 @@ public class ItemMapper {
         itemDto.setId(oldItem.getId());
         itemDto.setOwner(oldItem.getOwner());
         itemDto.setRequest(RequestMapper.toRequestDto(oldItem.getRequest()));
+        itemDto.setLastBooking(oldItem.getLastBooking());
+        itemDto.setNextBooking(oldItem.getNextBooking());
+        itemDto.setCommentsCount(oldItem.getCommentsCount());
         if (itemDtoInput.getName() == null) {
             itemDto.setName(oldItem.getName());
         } else {
@@ -166,37 +177,4 @@ public class ItemMapper {
         return itemDto;
     }
 
-
-    /**
-     * Метод поиска первой аренды после текущего момента времени.
-     *
-     * @param bookings список бронирований.
-     * @return следующее бронирование после текущего момента времени.
-     */
-    private static Booking findNextBooking(List<Booking> bookings) {
-        return Optional.ofNullable(bookings)
-                .filter(list -> !list.isEmpty())
-                .flatMap(list -> list.stream()
-                        .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                        .filter(b -> b.getStatus().equals(BookingStatus.APPROVED) ||
-                                b.getStatus().equals(BookingStatus.WAITING))
-                        .min(Comparator.comparing(Booking::getStart)))
-                .orElse(null);
-    }
-
-    /**
-     * Метод поиска последней аренды до текущего момента времени.
-     *
-     * @param bookings список бронирований.
-     * @return последнее бронирование до текущего момента времени.
-     */
-    private static Booking findLastBooking(List<Booking> bookings) {
-        return Optional.ofNullable(bookings)
-                .filter(list -> !list.isEmpty())
-                .flatMap(list -> list.stream()
-                        .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                        .filter(b -> b.getStatus().equals(BookingStatus.APPROVED))
-                        .max(Comparator.comparing(Booking::getEnd)))
-                .orElse(null);
-    }
 }
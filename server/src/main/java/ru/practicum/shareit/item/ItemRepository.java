@@ -1,17 +1,113 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Вещи владельца вместе со ссылками на владельца, запрос, последнее и следующее бронирование
+     * одним запросом. Коллекции комментариев и бронирований догружаются пакетами
+     * (hibernate.default_batch_fetch_size), а не отдельным запросом на каждую вещь.
+     */
+    @EntityGraph(attributePaths = {"owner", "request", "lastBooking", "nextBooking"})
     List<Item> findAllByOwner(User owner, Sort name);
 
-    List<Item> findByNameContainingIgnoreCaseAndAvailableTrueOrDescriptionContainingIgnoreCaseAndAvailableTrue(
-            String name, String description, Sort by);
+    /**
+     * Поиск подстроки в названии и описании без учёта регистра.
+     *
+     * @param pattern запрос с экранированными символами шаблона LIKE.
+     * @param offset  количество пропускаемых строк.
+     * @param limit   максимальное количество строк.
+     */
+    @Query("select i.id from Item i where i.available = true "
+            + "and (upper(i.name) like upper(concat('%', :pattern, '%')) escape '\\' "
+            + "or upper(i.description) like upper(concat('%', :pattern, '%')) escape '\\') "
+            + "order by i.name, i.id "
+            + "limit :limit offset :offset")
+    List<Long> searchIdsByText(@Param("pattern") String pattern, @Param("offset") int offset,
+                               @Param("limit") int limit);
 
-}
\ No newline at end of file
+    /**
+     * Полнотекстовый поиск на PostgreSQL с ранжированием по релевантности.
+     *
+     * @param text    поисковый запрос.
+     * @param pattern запрос в нижнем регистре с экранированными символами шаблона LIKE.
+     * @param offset  количество пропускаемых строк.
+     * @param limit   максимальное количество строк.
+     */
+    @Query(value = "select i.id from items i where i.is_available and ("
+            + "i.search_vector @@ websearch_to_tsquery('russian', :text) "
+            + "or lower(i.name) like '%' || :pattern || '%' escape '\\' "
+            + "or lower(i.description) like '%' || :pattern || '%' escape '\\' "
+            + "or lower(:text) <% lower(i.name) "
+            + "or lower(:text) <% lower(i.description)) "
+            + "order by ts_rank(i.search_vector, websearch_to_tsquery('russian', :text)) desc, "
+            + "greatest(word_similarity(lower(:text), lower(i.name)), "
+            + "word_similarity(lower(:text), coalesce(lower(i.description), ''))) desc, i.id "
+            + "limit :limit offset :offset",
+            nativeQuery = true)
+    List<Long> searchIdsByRelevance(@Param("text") String text, @Param("pattern") String pattern,
+                                    @Param("offset") int offset, @Param("limit") int limit);
+
+    @Query("select new ru.practicum.shareit.item.ItemSearchDocument(i.id, i.name, i.description, i.available) "
+            + "from Item i")
+    List<ItemSearchDocument> findAllSearchDocuments();
+
+    /**
+     * Вещи, созданные в ответ на любой из запросов, вместе с владельцами, одним запросом к БД.
+     *
+     * @param requestIds ID запросов вещей.
+     */
+    @Query("select new ru.practicum.shareit.item.RequestedItem(i.request.id, i.id, i.name, o.id, o.name) "
+            + "from Item i join i.owner o where i.request.id in :requestIds order by i.id")
+    List<RequestedItem> findAllRequestedItems(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Доступные вещи из списка вместе с владельцами, в кратком виде для запроса вещи.
+     *
+     * @param ids ID вещей.
+     */
+    @Query("select new ru.practicum.shareit.item.ItemDtoRequest(i.id, i.name, o.id, o.name) "
+            + "from Item i join i.owner o where i.id in :ids and i.available = true")
+    List<ItemDtoRequest> findAllAvailableForRequest(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct i.owner.id from Item i where i.id in :ids")
+    List<Long> findOwnerIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i from Item i join i.nextBooking b where b.start <= :now")
+    List<Item> findAllWithNextBookingStartedBefore(@Param("now") LocalDateTime now);
+
+    /**
+     * Получение вещи с блокировкой строки (SELECT ... FOR UPDATE) до конца транзакции.
+     * Используется для сериализации создания бронирований одной и той же вещи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Блокировка строк нескольких вещей одним запросом в порядке возрастания ID, чтобы параллельные
+     * пакетные операции с пересекающимися наборами вещей не блокировали друг друга взаимно.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :ids order by i.id")
+    List<Item> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Item i set i.commentsCount = i.commentsCount + 1 where i.id = :itemId")
+    int incrementCommentsCount(@Param("itemId") Long itemId);
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Механизм поиска доступных вещей по тексту в названии или описании.
+ * Реализация выбирается свойством shareit.item.search.mode:
+ * index — инвертированный индекс в памяти приложения (по умолчанию),
+ * database — поиск средствами БД (полнотекстовый с ранжированием на PostgreSQL, LIKE на остальных).
+ */
+public interface ItemSearch {
+
+    /**
+     * Поиск доступных вещей. Страница выбирается самим механизмом поиска (LIMIT/OFFSET в БД),
+     * поэтому полный список найденных вещей не материализуется.
+     *
+     * @param text   поисковый запрос (не пустой).
+     * @param offset количество пропускаемых вещей.
+     * @param limit  максимальное количество вещей (null — без ограничения).
+     * @return ID найденных вещей страницы в порядке выдачи.
+     */
+    List<Long> search(String text, int offset, Integer limit);
+
+    /**
+     * Может ли доступная вещь с указанными названием и описанием попасть в результат запроса.
+     * Используется для точечного сброса кеша результатов поиска.
+     *
+     * @param query       поисковый запрос в нижнем регистре.
+     * @param name        название вещи.
+     * @param description описание вещи.
+     */
+    default boolean mayMatch(String query, String name, String description) {
+        return (name != null && name.toLowerCase(Locale.ROOT).contains(query))
+                || (description != null && description.toLowerCase(Locale.ROOT).contains(query));
+    }
+
+    /**
+     * Учесть добавленную или изменённую вещь.
+     *
+     * @param item сохранённая вещь.
+     */
+    default void update(Item item) {
+    }
+
+    /**
+     * Учесть удаление вещи.
+     *
+     * @param itemId ID удалённой вещи.
+     */
+    default void remove(Long itemId) {
+    }
+
+    /**
+     * Текст запроса с экранированными символами \, % и _ для условия LIKE ... ESCAPE '\'.
+     *
+     * @param text поисковый запрос.
+     */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
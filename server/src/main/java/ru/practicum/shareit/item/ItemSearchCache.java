@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.BoundedLruCache;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ограниченный по размеру LRU-кеш страниц результатов поиска вещей, ключ — поисковый запрос в нижнем регистре
+ * вместе с границами страницы.
+ * При добавлении, изменении и удалении вещи после фиксации транзакции сбрасываются только те запросы,
+ * которые находили вещь до изменения или будут находить после него (см. {@link ItemSearch#mayMatch}).
+ * Попадания и промахи публикуются в метрике shareit.item.search.cache с тегом result.
+ */
+@Component
+public class ItemSearchCache {
+
+    private final ItemSearch itemSearch;
+    private final BoundedLruCache<Query, List<Long>> entries;
+
+    public ItemSearchCache(ItemSearch itemSearch,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search.cache.max-size}") int maxSize) {
+        this.itemSearch = itemSearch;
+        this.entries = new BoundedLruCache<>(maxSize, meterRegistry, "shareit.item.search.cache",
+                "Обращения к кешу результатов поиска вещей",
+                "Количество запросов в кеше результатов поиска вещей");
+    }
+
+    /**
+     * Страница результата поиска из кеша либо, при промахе, из механизма поиска с сохранением в кеш.
+     * Результат, вычисленный одновременно со сбросом кеша, не сохраняется.
+     *
+     * @param text   поисковый запрос (не пустой).
+     * @param offset количество пропускаемых вещей.
+     * @param limit  максимальное количество вещей (null — без ограничения).
+     * @return ID найденных вещей страницы в порядке выдачи.
+     */
+    public List<Long> search(String text, int offset, Integer limit) {
+        return entries.get(new Query(text.toLowerCase(Locale.ROOT), offset, limit),
+                key -> List.copyOf(itemSearch.search(text, offset, limit)));
+    }
+
+    /**
+     * Сбросить запросы, затронутые изменением вещи, после фиксации текущей транзакции.
+     *
+     * @param before состояние вещи до изменения (null для новой вещи).
+     * @param after  состояние вещи после изменения (null для удалённой вещи).
+     */
+    public void invalidate(ItemSearchDocument before, ItemSearchDocument after) {
+        TransactionHooks.afterCommit(() -> entries.invalidateIf(key -> affects(key.text(), before)
+                || affects(key.text(), after)));
+    }
+
+    /**
+     * Сбросить весь кеш после фиксации текущей транзакции (например, при массовом импорте вещей).
+     */
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(entries::invalidateAll);
+    }
+
+    private boolean affects(String key, ItemSearchDocument item) {
+        return item != null && Boolean.TRUE.equals(item.available())
+                && itemSearch.mayMatch(key, item.name(), item.description());
+    }
+
+    private record Query(String text, int offset, Integer limit) {
+    }
+}
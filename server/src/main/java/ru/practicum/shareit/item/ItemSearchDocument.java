@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Проекция вещи для построения поискового индекса.
+ */
+public record ItemSearchDocument(Long id, String name, String description, Boolean available) {
+
+    public static ItemSearchDocument of(Item item) {
+        return new ItemSearchDocument(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+}
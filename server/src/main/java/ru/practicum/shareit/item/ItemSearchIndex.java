@@ -0,0 +1,235 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс вещей для поиска по названию и описанию без обращения к БД.
+ * Текст вещи (название и описание в нижнем регистре) разбивается на триграммы, для каждой триграммы
+ * хранится отсортированный массив ID вещей. Кандидаты получаются пересечением списков триграмм запроса
+ * и затем проверяются на вхождение подстроки, поэтому результат совпадает с прежним запросом
+ * LIKE '%text%' по названию или описанию. Доступные для аренды вещи отмечены в битовом множестве.
+ * Индекс строится при запуске приложения и обновляется после фиксации транзакций,
+ * в которых вещи добавляются, изменяются или удаляются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+
+    private static final int GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final Comparator<Document> BY_NAME = Comparator.comparing(Document::name,
+            Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Document::id);
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final BitSet available = new BitSet();
+
+    @PostConstruct
+    void load() {
+        List<ItemSearchDocument> all = itemRepository.findAllSearchDocuments();
+        all.forEach(this::put);
+        log.info("Построен поисковый индекс вещей : [ {} ], триграмм : [ {} ].", all.size(), postings.size());
+    }
+
+    /**
+     * Поиск доступных вещей, в названии или описании которых встречается текст (без учёта регистра).
+     * Если размер страницы задан, в куче удерживаются только первые offset + limit вещей по названию,
+     * и весь результат не сортируется.
+     *
+     * @param text   поисковый запрос.
+     * @param offset количество пропускаемых вещей.
+     * @param limit  максимальное количество вещей (null — без ограничения).
+     * @return ID найденных вещей страницы, упорядоченные по названию.
+     */
+    @Override
+    public List<Long> search(String text, int offset, Integer limit) {
+        String query = normalize(text);
+        int bound = limit == null ? Integer.MAX_VALUE : (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Document> top = new PriorityQueue<>(BY_NAME.reversed());
+            for (long id : candidates(query)) {
+                Document document = documents.get(id);
+                if (document != null && available.get(Math.toIntExact(id)) && document.text().contains(query)) {
+                    top.add(document);
+                    if (top.size() > bound) {
+                        top.poll();
+                    }
+                }
+            }
+            List<Document> found = new ArrayList<>(top);
+            found.sort(BY_NAME);
+            return found.stream().skip(offset).map(Document::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Учесть добавленную или изменённую вещь после фиксации текущей транзакции.
+     *
+     * @param item сохранённая вещь.
+     */
+    @Override
+    public void update(Item item) {
+        ItemSearchDocument document = ItemSearchDocument.of(item);
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    /**
+     * Убрать вещь из индекса после фиксации текущей транзакции.
+     *
+     * @param itemId ID удалённой вещи.
+     */
+    @Override
+    public void remove(Long itemId) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void put(ItemSearchDocument item) {
+        Document document = new Document(item.id(), item.name(),
+                normalize(item.name()) + FIELD_SEPARATOR + normalize(item.description()));
+        lock.writeLock().lock();
+        try {
+            delete(item.id());
+            documents.put(item.id(), document);
+            for (String gram : grams(document.text())) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(item.id());
+            }
+            available.set(Math.toIntExact(item.id()), Boolean.TRUE.equals(item.available()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Long itemId) {
+        Document old = documents.remove(itemId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : grams(old.text())) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        available.clear(Math.toIntExact(itemId));
+    }
+
+    /**
+     * Кандидаты для запроса: пересечение списков триграмм, а для запросов короче триграммы —
+     * все доступные вещи.
+     */
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return available.stream().asLongStream().toArray();
+        }
+        Set<String> grams = grams(query);
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings smallest = lists.get(0);
+        long[] result = new long[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            boolean all = true;
+            for (int j = 1; j < lists.size() && all; j++) {
+                all = lists.get(j).contains(id);
+            }
+            if (all) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(Long id, String name, String text) {
+    }
+
+    /**
+     * Отсортированный по возрастанию список ID вещей одной триграммы.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
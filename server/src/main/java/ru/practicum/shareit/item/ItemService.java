@@ -1,20 +1,41 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.FreeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
     Item addItem(Long idUser, ItemDtoInput itemDto);
 
+    List<ItemDtoShort> importItems(Long idUser, Iterator<ItemDtoInput> items);
+
     Item updateItem(Long idUser, Long idItem, ItemDtoInput itemDto);
 
     Item getItemById(Long idItem);
 
+    List<FreeSlotDto> getFreeSlots(Long idItem, LocalDateTime from, LocalDateTime to);
+
     void removeItem(Long idUser, Long idItem);
 
     List<Item> getAllItems(Long idUser);
 
-    List<Item> searchItems(String text);
+    List<Item> searchItems(String text, Integer from, Integer size);
+
+    List<ItemSuggestionDto> suggestItems(String prefix, Integer size);
+
+    List<Item> getSimilarItems(Long idItem, Integer size);
+
+    Window<Comment> getComments(Long itemId, Integer size, String cursor);
+
+    List<Comment> getLatestComments(Long itemId);
+
+    Map<Long, List<Comment>> getLatestComments(Collection<Long> itemIds);
 
     Comment saveComment(Long userId, Long itemId, CommentDto inputCommentDto);
 
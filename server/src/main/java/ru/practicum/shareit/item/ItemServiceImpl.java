@@ -1,23 +1,41 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.FreeSlotDto;
+import ru.practicum.shareit.booking.ItemBookingIndex;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.RestrictedAccessException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.request.RequestMapper;
+import ru.practicum.shareit.request.RequestMatchIndex;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangeCounter;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,6 +46,32 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemBookingIndex itemBookingIndex;
+    private final ItemSearch itemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCache itemViewCache;
+    private final CommentEligibilityCache commentEligibilityCache;
+    private final ItemSimilarityIndex itemSimilarityIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final RequestMatchIndex requestMatchIndex;
+    private final UserChangeCounter userChangeCounter;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.item.search.max-page-size}")
+    private int maxSearchPageSize;
+
+    @Value("${shareit.item.comments.max-page-size}")
+    private int maxCommentsPageSize;
+
+    @Value("${shareit.item.import.max-size}")
+    private int maxImportSize;
+
+    @Value("${shareit.item.suggest.max-size}")
+    private int maxSuggestSize;
+
+    private static final Duration DEFAULT_AVAILABILITY_PERIOD = Duration.ofDays(30);
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+    private static final int IMPORT_FLUSH_SIZE = 500;
 
     /**
      * Метод для добавления новой вещи.
@@ -59,10 +103,74 @@ public class ItemServiceImpl implements ItemService {
         }
         Item result = ItemMapper.toItem(itemDto);
         itemRepository.save(result);
+        itemSearch.update(result);
+        itemSuggestIndex.update(result);
+        requestMatchIndex.onItemSaved(result);
+        itemSearchCache.invalidate(null, ItemSearchDocument.of(result));
+        userChangeCounter.touch(idUser);
+        touchRequestor(result.getRequest());
         log.info("Добавлена вещь [ {} ] пользователем [ {} ]", result.getId(), idUser);
         return result;
     }
 
+    /**
+     * Метод для массового импорта вещей пользователя в одной транзакции.
+     * Вещи читаются из потока по одной и сохраняются пакетами JDBC; контекст персистентности
+     * сбрасывается в БД и очищается каждые IMPORT_FLUSH_SIZE вещей, поэтому расход памяти
+     * не зависит от размера импорта. Количество вещей ограничено свойством shareit.item.import.max-size.
+     *
+     * @param idUser идентификатор пользователя
+     * @param items  поток данных новых вещей
+     * @return краткие данные добавленных вещей в порядке импорта
+     * @throws NotFoundException   если пользователь с указанным id не найден в БД
+     * @throws ValidationException если количество вещей превышает допустимое
+     */
+    @Override
+    @Transactional
+    public List<ItemDtoShort> importItems(Long idUser, Iterator<ItemDtoInput> items) {
+        if (!userRepository.existsById(idUser)) {
+            String error = "Пользователь с id [ " + idUser + " ] не найден в БД при импорте вещей.";
+            log.info(error);
+            throw new NotFoundException(error);
+        }
+        Map<Long, Optional<Long>> requestors = new HashMap<>();
+        List<ItemDtoShort> result = new ArrayList<>();
+        while (items.hasNext()) {
+            if (result.size() >= maxImportSize) {
+                throw new ValidationException("Количество импортируемых вещей не может превышать "
+                        + maxImportSize + ".");
+            }
+            ItemDtoInput input = items.next();
+            Item item = new Item();
+            item.setName(input.getName());
+            item.setDescription(input.getDescription());
+            item.setAvailable(input.getAvailable());
+            item.setOwner(entityManager.getReference(User.class, idUser));
+            Long requestId = input.getRequestId();
+            if (requestId != null) {
+                Optional<Long> requestor = requestors.computeIfAbsent(requestId,
+                        id -> requestRepository.findById(id).map(request -> request.getRequestor().getId()));
+                if (requestor.isPresent()) {
+                    item.setRequest(requestRepository.getReferenceById(requestId));
+                }
+            }
+            entityManager.persist(item);
+            itemSearch.update(item);
+            itemSuggestIndex.update(item);
+            requestMatchIndex.onItemSaved(item);
+            result.add(ItemMapper.toItemDtoShort(item));
+            if (result.size() % IMPORT_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        itemSearchCache.invalidateAll();
+        userChangeCounter.touch(idUser);
+        requestors.values().forEach(requestor -> requestor.ifPresent(userChangeCounter::touch));
+        log.info("Импортировано вещей [ {} ] пользователем [ {} ]", result.size(), idUser);
+        return result;
+    }
+
     /**
      * Метод для обновления данных вещи.
      *
@@ -93,8 +201,16 @@ public class ItemServiceImpl implements ItemService {
             log.info(error);
             throw new RestrictedAccessException(error);
         }
+        ItemSearchDocument before = ItemSearchDocument.of(oldItem.get());
         Item newItem = ItemMapper.toItem(ItemMapper.updateItemDto(itemDtoInput, oldItem.get()));
         itemRepository.save(newItem);
+        itemSearch.update(newItem);
+        itemSuggestIndex.update(newItem);
+        requestMatchIndex.onItemSaved(newItem);
+        itemSearchCache.invalidate(before, ItemSearchDocument.of(newItem));
+        itemViewCache.evict(idItem);
+        userChangeCounter.touch(idUser);
+        touchRequestor(oldItem.get().getRequest());
         log.info("Обновлены данные вещи [ {} ]", ItemMapper.toItemDtoShort(newItem));
         return newItem;
     }
@@ -118,6 +234,38 @@ public class ItemServiceImpl implements ItemService {
         return oldItem.get();
     }
 
+    /**
+     * Метод для получения свободных для бронирования промежутков вещи.
+     * Промежутки вычисляются по индексу активных бронирований вещи без обращения к таблице бронирований.
+     *
+     * @param idItem идентификатор вещи
+     * @param from   начало интервала, по умолчанию текущий момент
+     * @param to     окончание интервала, по умолчанию через 30 дней после начала
+     * @return упорядоченный список свободных промежутков, пустой для недоступной вещи
+     * @throws NotFoundException   если вещь с указанным id не найдена в БД
+     * @throws ValidationException если интервал задан некорректно или превышает 366 дней
+     */
+    @Override
+    public List<FreeSlotDto> getFreeSlots(Long idItem, LocalDateTime from, LocalDateTime to) {
+        Item item = itemRepository.findById(idItem).orElseThrow(() ->
+                new NotFoundException("Вещь с id [ " + idItem + " ] не найдена в БД при запросе свободных дат."));
+        LocalDateTime start = from == null ? LocalDateTime.now() : from;
+        LocalDateTime end = to == null ? start.plus(DEFAULT_AVAILABILITY_PERIOD) : to;
+        if (!end.isAfter(start)) {
+            throw new ValidationException("Окончание интервала [ " + end + " ] должно быть позже начала [ " + start + " ].");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new ValidationException("Интервал запроса свободных дат не может превышать "
+                    + MAX_AVAILABILITY_PERIOD.toDays() + " дней.");
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return List.of();
+        }
+        List<FreeSlotDto> result = itemBookingIndex.freeSlots(idItem, start, end);
+        log.info("Получены свободные промежутки вещи [ {} ] с [ {} ] по [ {} ] : [ {} ]", idItem, start, end, result.size());
+        return result;
+    }
+
     /**
      * Метод для удаления вещи по идентификатору.
      *
@@ -139,7 +287,16 @@ public class ItemServiceImpl implements ItemService {
             log.info(error);
             throw new NotFoundException(error);
         }
-        itemRepository.delete(itemRepository.findById(idItem).get());
+        Item item = itemRepository.findById(idItem).get();
+        itemRepository.delete(item);
+        itemBookingIndex.evict(idItem);
+        itemSearch.remove(idItem);
+        itemSuggestIndex.remove(idItem);
+        requestMatchIndex.removeItem(item);
+        itemSearchCache.invalidate(ItemSearchDocument.of(item), null);
+        itemViewCache.evict(idItem);
+        userChangeCounter.touch(idUser);
+        touchRequestor(item.getRequest());
         log.info("Вещь с id [ {} ] успешно удалена.", idItem);
     }
 
@@ -166,22 +323,142 @@ public class ItemServiceImpl implements ItemService {
 
     /**
      * Метод для поиска вещей по поисковому запросу.
+     * Смещение и размер страницы передаются механизму поиска, поэтому из БД и кеша читаются
+     * только ID и вещи запрошенной страницы. Размер страницы ограничен свойством
+     * shareit.item.search.max-page-size; если размер не задан, возвращаются все найденные вещи, начиная с from.
      *
      * @param text поисковый запрос
-     * @return список вещей, в названии или описании которых присутствует поисковый запрос
+     * @param from индекс первого элемента
+     * @param size количество элементов на странице (может быть null)
+     * @return страница вещей, в названии или описании которых присутствует поисковый запрос
+     * @throws ValidationException если параметры страницы заданы некорректно
      */
     @Override
-    public List<Item> searchItems(String text) {
+    public List<Item> searchItems(String text, Integer from, Integer size) {
+        if (from < 0) {
+            throw new ValidationException("Индекс первого элемента не может быть отрицательным.");
+        }
+        if (size != null && size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным.");
+        }
         if (text.isBlank()) {
             return List.of();
         }
-        List<Item> result = itemRepository
-        .findByNameContainingIgnoreCaseAndAvailableTrueOrDescriptionContainingIgnoreCaseAndAvailableTrue(
-                text, text, Sort.by("name"));
+        List<Long> ids = itemSearchCache.search(text, from, size == null ? null : Math.min(size, maxSearchPageSize));
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> result = ids.stream().map(items::get).filter(Objects::nonNull).toList();
         log.info("Получен список вещей по поисковому запросу [ {} ] : [ {} ]", text, result.size());
         return result;
     }
 
+    /**
+     * Метод для получения подсказок названий доступных вещей по началу названия.
+     * Подсказки выдаются из индекса в памяти без обращения к БД, количество ограничено
+     * свойством shareit.item.suggest.max-size.
+     *
+     * @param prefix начало названия вещи
+     * @param size   количество подсказок
+     * @return подсказки, упорядоченные по названию; пустой список для пустого префикса
+     * @throws ValidationException если количество подсказок задано некорректно
+     */
+    @Override
+    public List<ItemSuggestionDto> suggestItems(String prefix, Integer size) {
+        if (size <= 0) {
+            throw new ValidationException("Количество подсказок должно быть положительным.");
+        }
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+        return itemSuggestIndex.suggest(prefix, Math.min(size, maxSuggestSize));
+    }
+
+    /**
+     * Метод для получения вещей, которые чаще всего бронировали вместе с данной вещью.
+     * Список ID берётся из матрицы совместных бронирований в памяти, из БД загружаются только сами вещи.
+     *
+     * @param idItem идентификатор вещи
+     * @param size   максимальное количество вещей
+     * @return похожие вещи по убыванию числа общих арендаторов
+     * @throws NotFoundException   если вещь с указанным id не найдена в БД
+     * @throws ValidationException если количество вещей задано некорректно
+     */
+    @Override
+    public List<Item> getSimilarItems(Long idItem, Integer size) {
+        if (size <= 0) {
+            throw new ValidationException("Количество похожих вещей должно быть положительным.");
+        }
+        if (!itemRepository.existsById(idItem)) {
+            throw new NotFoundException("Вещь с id [ " + idItem + " ] не найдена в БД при запросе похожих вещей.");
+        }
+        List<Long> ids = itemSimilarityIndex.similar(idItem, size);
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> result = ids.stream().map(items::get).filter(Objects::nonNull).toList();
+        log.info("Получены похожие вещи для вещи [ {} ] : [ {} ]", idItem, result.size());
+        return result;
+    }
+
+    /**
+     * Метод для постраничного получения комментариев вещи, от более новых к более старым.
+     * Размер страницы ограничен свойством shareit.item.comments.max-page-size.
+     *
+     * @param itemId идентификатор вещи
+     * @param size   количество комментариев на странице
+     * @param cursor курсор, полученный с предыдущей страницей (может быть null)
+     * @return страница комментариев
+     * @throws NotFoundException   если вещь с указанным id не найдена в БД
+     * @throws ValidationException если размер страницы или курсор заданы некорректно
+     */
+    @Override
+    public Window<Comment> getComments(Long itemId, Integer size, String cursor) {
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id [ " + itemId + " ] не найдена в БД при запросе комментариев.");
+        }
+        int limit = Math.min(size, maxCommentsPageSize);
+        List<Comment> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = commentRepository.findLatestByItemIdBefore(itemId, after.key(), after.id(), Limit.of(limit + 1));
+        } else {
+            rows = commentRepository.findLatestByItemId(itemId, Limit.of(limit + 1));
+        }
+        Window<Comment> page = KeysetCursor.window(rows, limit,
+                comment -> new KeysetCursor(comment.getCreated(), comment.getId()));
+        log.info("Получена страница комментариев вещи [ {} ] : [ {} ]", itemId, page.size());
+        return page;
+    }
+
+    /**
+     * Последние комментарии вещи для встраивания в её представление, от более новых к более старым.
+     * Читаются запросом с ограничением ItemMapper.COMMENTS_PREVIEW_SIZE, а не через коллекцию вещи.
+     *
+     * @param itemId идентификатор вещи
+     * @return не более ItemMapper.COMMENTS_PREVIEW_SIZE комментариев
+     */
+    @Override
+    public List<Comment> getLatestComments(Long itemId) {
+        return commentRepository.findLatestByItemId(itemId, Limit.of(ItemMapper.COMMENTS_PREVIEW_SIZE));
+    }
+
+    /**
+     * Последние комментарии нескольких вещей одним запросом, для списков вещей.
+     *
+     * @param itemIds идентификаторы вещей
+     * @return не более ItemMapper.COMMENTS_PREVIEW_SIZE комментариев каждой вещи, сгруппированные по ID вещи
+     */
+    @Override
+    public Map<Long, List<Comment>> getLatestComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findLatestByItemIdIn(itemIds, ItemMapper.COMMENTS_PREVIEW_SIZE).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
     /**
      * Добавить комментарий к вещи пользователем, действительно бравшим вещь в аренду.
      *
@@ -198,15 +475,7 @@ public class ItemServiceImpl implements ItemService {
         Item itemFromBd = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Ошибка при сохранении комментария к вещи с ID = " + itemId
                         + " пользователя с ID = " + bookerId + " в БД. В БД отсутствует запись о вещи."));
-        List<Booking> bookings = itemFromBd.getBookings();
-        boolean isBooker = false;
-        for (Booking b : bookings) {
-            if (b.getBooker().getId().equals(bookerId) && b.getEnd().isBefore(LocalDateTime.now())) {
-                isBooker = true;
-                break;
-            }
-        }
-        if (!isBooker) {
+        if (!commentEligibilityCache.isEligible(bookerId, itemId)) {
             throw new ValidationException("Ошибка при сохранении комментария к вещи с ID = " + itemId
                     + " пользователя с ID = " + bookerId + " в БД. Пользователь не арендовал эту вещь.");
         }
@@ -215,8 +484,17 @@ public class ItemServiceImpl implements ItemService {
         commentDto.setCreated(LocalDateTime.now());
         Comment result = CommentMapper.toComment(commentDto);
         result = commentRepository.save(result);
+        itemRepository.incrementCommentsCount(itemId);
+        itemViewCache.evict(itemId);
+        userChangeCounter.touch(itemFromBd.getOwner().getId());
         log.info("Комментарий к вещи успешно добавлен. Данные комментария: {}", CommentMapper.toCommentDtoShort(result));
         return result;
     }
 
+    private void touchRequestor(Request request) {
+        if (request != null && request.getRequestor() != null) {
+            userChangeCounter.touch(request.getRequestor().getId());
+        }
+    }
+
 }
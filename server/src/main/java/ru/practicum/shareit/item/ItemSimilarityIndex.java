@@ -0,0 +1,219 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookedItem;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Рекомендации «вместе с этой вещью бронируют»: разреженная матрица совместных бронирований вещей.
+ * Две вещи считаются совместно забронированными, если их бронировал один и тот же пользователь
+ * (учитываются бронирования в статусах WAITING и APPROVED). В памяти для каждой вещи хранятся только
+ * top-K соседей в примитивных массивах, отсортированных по убыванию числа общих арендаторов:
+ * полная матрица строится фоновой задачей и после выбора соседей отбрасывается.
+ * После фиксации нового бронирования счётчики соседей увеличиваются на месте. Вещь, не попавшая
+ * в заполненный список соседей, до следующего перестроения в него не добавляется, так как её
+ * точный счётчик не хранится.
+ */
+@Slf4j
+@Component
+public class ItemSimilarityIndex {
+
+    private static final List<BookingStatus> STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final Neighbours EMPTY = new Neighbours(new long[0], new int[0]);
+
+    private final BookingRepository bookingRepository;
+    private final int topK;
+
+    private List<BookedItem> pendingDuringRebuild;
+    private volatile Map<Long, Neighbours> neighbours = new ConcurrentHashMap<>();
+
+    public ItemSimilarityIndex(BookingRepository bookingRepository,
+                               @Value("${shareit.item.similar.top-k}") int topK) {
+        this.bookingRepository = bookingRepository;
+        this.topK = topK;
+    }
+
+    /**
+     * Построение матрицы при запуске приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Полное перестроение матрицы по таблице бронирований. Бронирования, добавленные
+     * во время перестроения, применяются к новой матрице перед выбором соседей.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.similar.rebuild-interval}",
+            initialDelayString = "${shareit.item.similar.rebuild-interval}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        List<BookedItem> booked = bookingRepository.findAllBookedItems(STATUSES);
+        Map<Long, Set<Long>> byBooker = new HashMap<>();
+        for (BookedItem pair : booked) {
+            byBooker.computeIfAbsent(pair.bookerId(), id -> new HashSet<>()).add(pair.itemId());
+        }
+        Map<Long, Map<Long, Integer>> matrix = new HashMap<>();
+        for (Set<Long> items : byBooker.values()) {
+            for (Long item : items) {
+                for (Long other : items) {
+                    if (!item.equals(other)) {
+                        matrix.computeIfAbsent(item, id -> new HashMap<>()).merge(other, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            List<BookedItem> missed = pendingDuringRebuild;
+            pendingDuringRebuild = null;
+            for (BookedItem pair : missed) {
+                Set<Long> items = byBooker.computeIfAbsent(pair.bookerId(), id -> new HashSet<>());
+                if (items.add(pair.itemId())) {
+                    for (Long other : items) {
+                        if (!other.equals(pair.itemId())) {
+                            matrix.computeIfAbsent(pair.itemId(), id -> new HashMap<>()).merge(other, 1, Integer::sum);
+                            matrix.computeIfAbsent(other, id -> new HashMap<>()).merge(pair.itemId(), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+            Map<Long, Neighbours> built = new ConcurrentHashMap<>();
+            matrix.forEach((item, row) -> built.put(item, topK(row)));
+            neighbours = built;
+        }
+        log.info("Построена матрица похожих вещей : вещей [ {} ], арендаторов [ {} ].",
+                matrix.size(), byBooker.size());
+    }
+
+    /**
+     * Учесть новое бронирование после фиксации текущей транзакции.
+     *
+     * @param booking сохранённое бронирование.
+     */
+    public void onBooked(Booking booking) {
+        BookedItem pair = new BookedItem(booking.getBooker().getId(), booking.getItem().getId());
+        TransactionHooks.afterCommit(() -> apply(pair));
+    }
+
+    /**
+     * Вещи, которые чаще всего бронировали пользователи, бронировавшие данную вещь.
+     *
+     * @param itemId ID вещи.
+     * @param size   максимальное количество вещей.
+     * @return ID похожих вещей по убыванию числа общих арендаторов.
+     */
+    public List<Long> similar(Long itemId, int size) {
+        Neighbours found = neighbours.getOrDefault(itemId, EMPTY);
+        int count = Math.min(size, found.ids().length);
+        List<Long> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(found.ids()[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Увеличение счётчиков вещи и остальных вещей арендатора. Если арендатор уже бронировал
+     * эту вещь, пара была учтена раньше. Во время перестроения бронирование откладывается
+     * и учитывается в новой матрице.
+     */
+    private void apply(BookedItem pair) {
+        List<Long> bookedByBooker = bookingRepository.findBookedItemIds(pair.bookerId(), STATUSES);
+        if (Collections.frequency(bookedByBooker, pair.itemId()) > 1) {
+            return;
+        }
+        Set<Long> others = new HashSet<>(bookedByBooker);
+        others.remove(pair.itemId());
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(pair);
+                return;
+            }
+            for (Long other : others) {
+                increment(pair.itemId(), other);
+                increment(other, pair.itemId());
+            }
+        }
+    }
+
+    private void increment(Long item, Long other) {
+        Neighbours current = neighbours.getOrDefault(item, EMPTY);
+        Neighbours updated = current.increment(other, topK);
+        if (updated != current) {
+            neighbours.put(item, updated);
+        }
+    }
+
+    private Neighbours topK(Map<Long, Integer> row) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(row.entrySet());
+        entries.sort(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        int size = Math.min(topK, entries.size());
+        long[] ids = new long[size];
+        int[] scores = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = entries.get(i).getKey();
+            scores[i] = entries.get(i).getValue();
+        }
+        return new Neighbours(ids, scores);
+    }
+
+    /**
+     * Соседи вещи: ID и число общих арендаторов, по убыванию числа, при равенстве — по возрастанию ID.
+     * Массивы не изменяются после публикации, поэтому читаются без блокировки.
+     */
+    private record Neighbours(long[] ids, int[] scores) {
+
+        /**
+         * Соседи с увеличенным на единицу счётчиком вещи. Отсутствующая вещь добавляется
+         * со счётчиком 1, только если список ещё не заполнен: тогда он содержит всех соседей,
+         * и прежний счётчик вещи равен нулю.
+         */
+        Neighbours increment(long id, int limit) {
+            int index = 0;
+            while (index < ids.length && ids[index] != id) {
+                index++;
+            }
+            if (index == ids.length && ids.length >= limit) {
+                return this;
+            }
+            long[] newIds = Arrays.copyOf(ids, Math.max(ids.length, index + 1));
+            int[] newScores = Arrays.copyOf(scores, newIds.length);
+            newIds[index] = id;
+            newScores[index]++;
+            while (index > 0 && (newScores[index] > newScores[index - 1]
+                    || newScores[index] == newScores[index - 1] && newIds[index] < newIds[index - 1])) {
+                long swapId = newIds[index];
+                newIds[index] = newIds[index - 1];
+                newIds[index - 1] = swapId;
+                int swapScore = newScores[index];
+                newScores[index] = newScores[index - 1];
+                newScores[index - 1] = swapScore;
+                index--;
+            }
+            return new Neighbours(newIds, newScores);
+        }
+    }
+}
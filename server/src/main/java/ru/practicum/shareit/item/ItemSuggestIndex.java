@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс названий доступных вещей для подсказок при вводе поискового запроса.
+ * Названия в нижнем регистре хранятся в упорядоченном множестве, поэтому вещи с названием,
+ * начинающимся с префикса, находятся двоичным поиском первой подходящей записи и чтением
+ * следующих за ней записей, без обращения к БД. Чтение не блокируется изменениями.
+ * Индекс строится при запуске приложения и обновляется после фиксации транзакций,
+ * в которых вещи добавляются, изменяются или удаляются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    private final ItemRepository itemRepository;
+
+    private final NavigableSet<Entry> names = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        List<ItemSearchDocument> all = itemRepository.findAllSearchDocuments();
+        all.forEach(this::put);
+        log.info("Построен индекс подсказок названий вещей : [ {} ].", names.size());
+    }
+
+    /**
+     * Доступные вещи, название которых начинается с префикса (без учёта регистра).
+     *
+     * @param prefix префикс названия.
+     * @param size   максимальное количество вещей.
+     * @return подсказки, упорядоченные по названию.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int size) {
+        String key = normalize(prefix);
+        List<ItemSuggestionDto> result = new ArrayList<>(Math.min(size, 16));
+        for (Entry entry : names.tailSet(new Entry(key, Long.MIN_VALUE, null), true)) {
+            if (result.size() >= size || !entry.key().startsWith(key)) {
+                break;
+            }
+            result.add(new ItemSuggestionDto(entry.id(), entry.name()));
+        }
+        return result;
+    }
+
+    /**
+     * Учесть добавленную или изменённую вещь после фиксации текущей транзакции.
+     *
+     * @param item сохранённая вещь.
+     */
+    public void update(Item item) {
+        ItemSearchDocument document = ItemSearchDocument.of(item);
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    /**
+     * Убрать вещь из индекса после фиксации текущей транзакции.
+     *
+     * @param itemId ID удалённой вещи.
+     */
+    public void remove(Long itemId) {
+        TransactionHooks.afterCommit(() -> delete(itemId));
+    }
+
+    private synchronized void put(ItemSearchDocument item) {
+        delete(item.id());
+        if (Boolean.TRUE.equals(item.available()) && item.name() != null) {
+            Entry entry = new Entry(normalize(item.name()), item.id(), item.name());
+            byId.put(item.id(), entry);
+            names.add(entry);
+        }
+    }
+
+    private synchronized void delete(Long itemId) {
+        Entry old = byId.remove(itemId);
+        if (old != null) {
+            names.remove(old);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String key, long id, String name) {
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSuggestionDto {
+
+    private Long id;
+
+    private String name;
+
+}
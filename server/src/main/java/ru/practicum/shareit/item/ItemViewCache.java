@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.BoundedLruCache;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру LRU-кеш представления вещи для пользователей, не являющихся её хозяином.
+ * Такое представление (без бронирований) одинаково для всех пользователей, поэтому хранится
+ * уже сериализованным в JSON и отдаётся без обращения к БД и без повторной сериализации.
+ * Запись вещи сбрасывается после фиксации транзакции, в которой вещь изменена, удалена
+ * или получила комментарий; при изменении и удалении пользователей (имя хозяина и авторов
+ * комментариев входит в представление) сбрасывается весь кеш.
+ * Попадания и промахи публикуются в метрике shareit.item.view.cache с тегом result.
+ */
+@Component
+public class ItemViewCache {
+
+    private final ObjectMapper objectMapper;
+    private final BoundedLruCache<Long, View> entries;
+
+    public ItemViewCache(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.item.view.cache.max-size}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.entries = new BoundedLruCache<>(maxSize, meterRegistry, "shareit.item.view.cache",
+                "Обращения к кешу представлений вещей",
+                "Количество вещей в кеше представлений");
+    }
+
+    /**
+     * Представление вещи в JSON для пользователя. Представление для хозяина вещи всегда строится заново,
+     * для остальных пользователей берётся из кеша либо строится и сохраняется в кеш.
+     * Представление, построенное одновременно со сбросом кеша, не сохраняется.
+     *
+     * @param itemId ID вещи.
+     * @param userId ID пользователя, запрашивающего вещь.
+     * @param loader построение представления вещи из БД при промахе.
+     * @return представление вещи в JSON.
+     */
+    public byte[] get(Long itemId, Long userId, Supplier<ItemDtoOutput> loader) {
+        long started = entries.generation();
+        View cached = entries.getIfPresent(itemId);
+        if (cached != null && !cached.ownerId().equals(userId)) {
+            entries.recordHit();
+            return cached.json();
+        }
+        ItemDtoOutput item = loader.get();
+        byte[] json = write(item);
+        Long ownerId = item.getOwner().getId();
+        if (ownerId.equals(userId)) {
+            return json;
+        }
+        entries.recordMiss();
+        entries.put(itemId, new View(ownerId, json), started);
+        return json;
+    }
+
+    /**
+     * Сбросить представление вещи после фиксации текущей транзакции.
+     *
+     * @param itemId ID вещи.
+     */
+    public void evict(Long itemId) {
+        TransactionHooks.afterCommit(() -> entries.invalidate(itemId));
+    }
+
+    /**
+     * Сбросить все представления после фиксации текущей транзакции.
+     */
+    public void evictAll() {
+        TransactionHooks.afterCommit(entries::invalidateAll);
+    }
+
+    private byte[] write(ItemDtoOutput item) {
+        try {
+            return objectMapper.writeValueAsBytes(item);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record View(Long ownerId, byte[] json) {
+    }
+}
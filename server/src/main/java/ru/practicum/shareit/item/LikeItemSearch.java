@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Поиск вещей запросом LIKE '%text%' по названию и описанию с сортировкой по названию.
+ * Символы шаблона LIKE в тексте запроса экранируются и ищутся буквально.
+ * Используется в режиме database на БД, отличных от PostgreSQL (например, H2 в профиле test).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${shareit.item.search.mode}' == 'database' and '${spring.sql.init.platform}' != 'postgresql'")
+public class LikeItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int offset, Integer limit) {
+        return itemRepository.searchIdsByText(ItemSearch.escapeLike(text), offset, limit == null ? Integer.MAX_VALUE : limit);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item;
+
+/**
+ * Проекция вещи, созданной в ответ на запрос, вместе с владельцем вещи.
+ */
+public record RequestedItem(Long requestId, Long itemId, String name, Long ownerId, String ownerName) {
+}
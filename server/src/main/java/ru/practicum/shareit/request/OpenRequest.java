@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request;
+
+/**
+ * Проекция запроса вещи, на который ещё не создано ни одной вещи, для индекса сопоставления.
+ */
+public record OpenRequest(Long id, Long requestorId, String description) {
+
+    public static OpenRequest of(Request request) {
+        return new OpenRequest(request.getId(), request.getRequestor().getId(), request.getDescription());
+    }
+}
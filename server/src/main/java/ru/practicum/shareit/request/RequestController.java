@@ -1,7 +1,13 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.ItemDtoRequest;
+import ru.practicum.shareit.user.UserChangeCounter;
 
 import java.util.List;
 
@@ -11,6 +17,7 @@ import java.util.List;
 public class RequestController {
 
     private final RequestService requestService;
+    private final UserChangeCounter userChangeCounter;
 
     @PostMapping
     public RequestDto addRequest(@RequestHeader("X-Sharer-User-Id") Long requestorId,
@@ -18,19 +25,47 @@ public class RequestController {
         return RequestMapper.toRequestDto(requestService.addRequest(requestorId, requestDto));
     }
 
+    /**
+     * Запросы пользователя с условным GET: при совпадении If-None-Match с версией данных
+     * пользователя возвращается 304 без чтения из БД.
+     */
     @GetMapping
-    public List<RequestDtoItems> getRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
-        return requestService.getRequests(requestorId).stream().map(RequestMapper::toRequestDtoItems).toList();
+    public List<RequestDtoItems> getRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                             WebRequest request) {
+        if (request.checkNotModified(userChangeCounter.etag(requestorId, request))) {
+            return null;
+        }
+        return requestService.getRequests(requestorId);
     }
 
+    /**
+     * Постраничное получение запросов других пользователей, от более новых к более старым.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor и передаётся в параметре cursor.
+     * Без параметра size возвращаются все запросы.
+     */
     @GetMapping("/all")
-    public List<RequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId) {
-        return requestService.getAllRequests(requestorId).stream().map(RequestMapper::toRequestDto).toList();
+    public ResponseEntity<List<RequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(required = false) String cursor) {
+        Window<RequestDto> window = requestService.getAllRequests(requestorId, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        KeysetCursor.next(window).ifPresent(next -> response.header(KeysetCursor.HEADER, next));
+        return response.body(window.getContent());
+    }
+
+    /**
+     * Вещи, добавленные без указания запроса, но подходящие под его описание.
+     * Доступны только автору запроса.
+     */
+    @GetMapping("/{requestId}/candidates")
+    public List<ItemDtoRequest> getCandidates(@RequestHeader("X-Sharer-User-Id") Long requestorId,
+                                              @PathVariable Long requestId) {
+        return requestService.getCandidates(requestorId, requestId);
     }
 
     @GetMapping("/{requestId}")
     public RequestDtoItems getRequestsById(@PathVariable Long requestId) {
-        return RequestMapper.toRequestDtoItems(requestService.getRequestById(requestId));
+        return requestService.getRequestById(requestId);
     }
 
 }
\ No newline at end of file
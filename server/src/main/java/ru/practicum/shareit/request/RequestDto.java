@@ -3,7 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDtoShort;
 
 import java.time.LocalDateTime;
 
@@ -16,8 +16,20 @@ public class RequestDto {
 
     private String description;
 
-    private User requestor;
+    /**
+     * Автор запроса: id, name и email. Раньше здесь сериализовалась сущность User целиком,
+     * вместе с ленивыми коллекциями items, bookings и comments; эти поля больше не выдаются.
+     */
+    private UserDtoShort requestor;
 
     private LocalDateTime created;
 
+    /**
+     * Конструктор для проекции JPQL (select new ...): запрос читается из БД сразу в DTO
+     * вместе с полями автора, без загрузки сущностей в контекст персистентности.
+     */
+    public RequestDto(Long id, String description, LocalDateTime created,
+                      Long requestorId, String requestorName, String requestorEmail) {
+        this(id, description, new UserDtoShort(requestorId, requestorName, requestorEmail), created);
+    }
 }
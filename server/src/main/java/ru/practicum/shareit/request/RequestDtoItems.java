@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.ItemDtoRequest;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDtoShort;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,7 +18,11 @@ public class RequestDtoItems {
 
     private String description;
 
-    private User requestor;
+    /**
+     * Автор запроса: id, name и email. Раньше здесь сериализовалась сущность User целиком,
+     * вместе с ленивыми коллекциями items, bookings и comments; эти поля больше не выдаются.
+     */
+    private UserDtoShort requestor;
 
     private LocalDateTime created;
 
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemDtoRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+
+import java.util.List;
 
 @Component
 public class RequestMapper {
@@ -14,28 +18,20 @@ public class RequestMapper {
 
         requestDto.setId(request.getId());
         requestDto.setDescription(request.getDescription());
-        requestDto.setRequestor(request.getRequestor());
+        requestDto.setRequestor(UserMapper.toUserDtoShort(request.getRequestor()));
         requestDto.setCreated(request.getCreated());
 
         return requestDto;
     }
 
-    public static RequestDtoItems toRequestDtoItems(Request request) {
+    public static RequestDtoItems toRequestDtoItems(RequestDto request, List<ItemDtoRequest> items) {
         if (request == null) {
             return null;
         }
-        RequestDtoItems requestDto = new RequestDtoItems();
-
-        requestDto.setId(request.getId());
-        requestDto.setDescription(request.getDescription());
-        requestDto.setRequestor(request.getRequestor());
-        requestDto.setCreated(request.getCreated());
-        requestDto.setItems(request.getItems().stream().map(ItemMapper::toItemDtoRequest).toList());
-
-        return requestDto;
+        return new RequestDtoItems(request.getId(), request.getDescription(), request.getRequestor(),
+                request.getCreated(), items);
     }
 
-
     public static Request toRequest(RequestDto requestDto) {
         Request request = new Request();
 
@@ -49,9 +45,13 @@ public class RequestMapper {
                 request.setDescription(requestDto.getDescription().trim());
             }
         }
-        if (requestDto.getRequestor().getId() != null) {
+        if (requestDto.getRequestor() != null && requestDto.getRequestor().getId() != null) {
             if (requestDto.getRequestor().getId() > 0) {
-                request.setRequestor(requestDto.getRequestor());
+                User requestor = new User();
+                requestor.setId(requestDto.getRequestor().getId());
+                requestor.setName(requestDto.getRequestor().getName());
+                requestor.setEmail(requestDto.getRequestor().getEmail());
+                request.setRequestor(requestor);
             }
         }
         if (requestDto.getCreated() != null) {
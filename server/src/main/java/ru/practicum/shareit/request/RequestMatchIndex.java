@@ -0,0 +1,250 @@
+package ru.practicum.shareit.request;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.Item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Сопоставление новых вещей с открытыми запросами (запросами, на которые ещё не создано ни одной вещи).
+ * Описания открытых запросов хранятся в инвертированном индексе слов: слово в нижнем регистре
+ * сокращается до первых STEM_LENGTH символов, чтобы разные формы одного слова («дрель», «дрели»)
+ * совпадали, а слова короче STEM_LENGTH не учитываются. Вещь, добавленная без указания запроса,
+ * становится кандидатом для всех открытых запросов других пользователей, с описанием которых
+ * у её названия или описания есть общее слово; после изменения вещи её кандидатство пересчитывается.
+ * Кандидаты хранятся только в памяти и ограничены по количеству для каждого запроса. Закрытие запроса
+ * снимает его кандидатов, а удаление последней вещи, созданной в ответ на запрос, снова открывает его.
+ * Индекс строится при запуске приложения и обновляется после фиксации транзакций, в которых
+ * добавляются запросы и вещи.
+ */
+@Slf4j
+@Component
+public class RequestMatchIndex {
+
+    private static final int STEM_LENGTH = 4;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final RequestRepository requestRepository;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> requestsByStem = new HashMap<>();
+    private final Map<Long, Entry> open = new HashMap<>();
+    private final Map<Long, LinkedHashSet<Long>> candidates = new HashMap<>();
+    private final Map<Long, Set<Long>> requestsByItem = new HashMap<>();
+
+    public RequestMatchIndex(RequestRepository requestRepository,
+                             @Value("${shareit.request.candidates.max-size}") int maxCandidates) {
+        this.requestRepository = requestRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @PostConstruct
+    void load() {
+        List<OpenRequest> all = requestRepository.findAllOpen();
+        all.forEach(this::put);
+        log.info("Построен индекс открытых запросов : [ {} ], слов : [ {} ].", all.size(), requestsByStem.size());
+    }
+
+    /**
+     * Вещи-кандидаты для запроса, от добавленных позже к добавленным раньше.
+     *
+     * @param requestId ID запроса.
+     * @return ID вещей-кандидатов.
+     */
+    public List<Long> candidates(Long requestId) {
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>(candidates.getOrDefault(requestId, new LinkedHashSet<>()));
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Учесть новый запрос после фиксации текущей транзакции.
+     *
+     * @param request сохранённый запрос.
+     */
+    public void addRequest(Request request) {
+        OpenRequest document = OpenRequest.of(request);
+        TransactionHooks.afterCommit(() -> put(document));
+    }
+
+    /**
+     * Учесть добавленную или изменённую вещь после фиксации текущей транзакции: вещь, созданная
+     * в ответ на запрос, закрывает его, остальные вещи сопоставляются с открытыми запросами.
+     *
+     * @param item сохранённая вещь.
+     */
+    public void onItemSaved(Item item) {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwner().getId();
+        Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+        String text = Objects.toString(item.getName(), "") + " " + Objects.toString(item.getDescription(), "");
+        TransactionHooks.afterCommit(() -> {
+            if (requestId != null) {
+                close(requestId);
+            } else {
+                match(itemId, ownerId, text);
+            }
+        });
+    }
+
+    /**
+     * Убрать вещь из кандидатов после фиксации текущей транзакции. Если вещь была создана в ответ
+     * на запрос и других вещей по нему не осталось, запрос снова становится открытым.
+     *
+     * @param item удалённая вещь.
+     */
+    public void removeItem(Item item) {
+        Long itemId = item.getId();
+        Long requestId = item.getRequest() == null ? null : item.getRequest().getId();
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long matched : List.copyOf(requestsByItem.getOrDefault(itemId, Set.of()))) {
+                    detach(matched, itemId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (requestId != null) {
+                requestRepository.findOpenById(requestId).ifPresent(this::put);
+            }
+        });
+    }
+
+    /**
+     * Убрать запросы пользователя после фиксации текущей транзакции.
+     *
+     * @param requestorId ID удалённого пользователя.
+     */
+    public void removeRequestor(Long requestorId) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> ids = open.values().stream()
+                        .filter(entry -> entry.requestorId().equals(requestorId))
+                        .map(Entry::id)
+                        .toList();
+                ids.forEach(this::delete);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void put(OpenRequest request) {
+        Entry entry = new Entry(request.id(), request.requestorId(), stems(request.description()));
+        lock.writeLock().lock();
+        try {
+            open.put(entry.id(), entry);
+            for (String stem : entry.stems()) {
+                requestsByStem.computeIfAbsent(stem, s -> new HashSet<>()).add(entry.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void close(Long requestId) {
+        lock.writeLock().lock();
+        try {
+            delete(requestId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Long requestId) {
+        Entry old = open.remove(requestId);
+        if (old != null) {
+            unlink(old);
+        }
+        for (Long itemId : List.copyOf(candidates.getOrDefault(requestId, new LinkedHashSet<>()))) {
+            detach(requestId, itemId);
+        }
+    }
+
+    private void detach(Long requestId, Long itemId) {
+        Set<Long> items = candidates.get(requestId);
+        if (items != null && items.remove(itemId) && items.isEmpty()) {
+            candidates.remove(requestId);
+        }
+        Set<Long> requests = requestsByItem.get(itemId);
+        if (requests != null && requests.remove(requestId) && requests.isEmpty()) {
+            requestsByItem.remove(itemId);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (String stem : entry.stems()) {
+            Set<Long> requests = requestsByStem.get(stem);
+            if (requests != null && requests.remove(entry.id()) && requests.isEmpty()) {
+                requestsByStem.remove(stem);
+            }
+        }
+    }
+
+    private void match(Long itemId, Long ownerId, String text) {
+        Set<String> stems = stems(text);
+        lock.writeLock().lock();
+        try {
+            Set<Long> matched = new HashSet<>();
+            for (String stem : stems) {
+                matched.addAll(requestsByStem.getOrDefault(stem, Set.of()));
+            }
+            matched.removeIf(requestId -> open.get(requestId).requestorId().equals(ownerId));
+            for (Long requestId : List.copyOf(requestsByItem.getOrDefault(itemId, Set.of()))) {
+                if (!matched.remove(requestId)) {
+                    detach(requestId, itemId);
+                }
+            }
+            for (Long requestId : matched) {
+                LinkedHashSet<Long> items = candidates.computeIfAbsent(requestId, id -> new LinkedHashSet<>());
+                items.add(itemId);
+                requestsByItem.computeIfAbsent(itemId, id -> new HashSet<>()).add(requestId);
+                if (items.size() > maxCandidates) {
+                    detach(requestId, items.getFirst());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> stems(String text) {
+        Set<String> result = new HashSet<>();
+        if (text == null) {
+            return result;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.length() >= STEM_LENGTH) {
+                result.add(word.substring(0, STEM_LENGTH));
+            }
+        }
+        return result;
+    }
+
+    private record Entry(Long id, Long requestorId, Set<String> stems) {
+    }
+}
@@ -1,17 +1,78 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
 
-    List<Request> findAllByRequestorOrderByCreatedDesc(User requestor);
+    /**
+     * Запросы вещей пользователя, от более новых к более старым, сразу в виде DTO (проекция JPQL).
+     *
+     * @param requestorId ID автора запросов.
+     */
+    @Query("select new ru.practicum.shareit.request.RequestDto(r.id, r.description, r.created, "
+            + "u.id, u.name, u.email) from Request r join r.requestor u "
+            + "where u.id = :requestorId order by r.created desc, r.id desc")
+    List<RequestDto> findAllDtoByRequestorId(@Param("requestorId") Long requestorId);
 
-    List<Request> findAllByOrderByCreatedDesc();
+    /**
+     * Запрос вещи по ID сразу в виде DTO (проекция JPQL).
+     */
+    @Query("select new ru.practicum.shareit.request.RequestDto(r.id, r.description, r.created, "
+            + "u.id, u.name, u.email) from Request r join r.requestor u where r.id = :requestId")
+    Optional<RequestDto> findDtoById(@Param("requestId") Long requestId);
 
-    List<Request> findAllByRequestorNotOrderByCreatedDesc(User requestor);
+    /**
+     * Проверка, что запрос создан указанным пользователем.
+     */
+    boolean existsByIdAndRequestorId(Long id, Long requestorId);
+
+    /**
+     * Запросы вещей, на которые ещё не создано ни одной вещи.
+     */
+    @Query("select new ru.practicum.shareit.request.OpenRequest(r.id, u.id, r.description) "
+            + "from Request r join r.requestor u where not exists (select i.id from Item i where i.request = r)")
+    List<OpenRequest> findAllOpen();
+
+    /**
+     * Запрос вещи, если на него ещё не создано ни одной вещи.
+     */
+    @Query("select new ru.practicum.shareit.request.OpenRequest(r.id, u.id, r.description) "
+            + "from Request r join r.requestor u "
+            + "where r.id = :id and not exists (select i.id from Item i where i.request = r)")
+    Optional<OpenRequest> findOpenById(@Param("id") Long id);
+
+    /**
+     * Первая страница запросов вещей других пользователей, от более новых к более старым,
+     * сразу в виде DTO (проекция JPQL).
+     *
+     * @param requestorId ID пользователя, чьи запросы исключаются.
+     */
+    @Query("select new ru.practicum.shareit.request.RequestDto(r.id, r.description, r.created, "
+            + "u.id, u.name, u.email) from Request r join r.requestor u "
+            + "where u.id <> :requestorId order by r.created desc, r.id desc")
+    List<RequestDto> findFeed(@Param("requestorId") Long requestorId, Limit limit);
+
+    /**
+     * Запросы вещей других пользователей, следующие за запросом с ключом (created, id),
+     * от более новых к более старым. Страница выбирается поиском по индексу (created, id), а не через OFFSET.
+     *
+     * @param requestorId ID пользователя, чьи запросы исключаются.
+     */
+    @Query("select new ru.practicum.shareit.request.RequestDto(r.id, r.description, r.created, "
+            + "u.id, u.name, u.email) from Request r join r.requestor u "
+            + "where u.id <> :requestorId and (r.created < :created or (r.created = :created and r.id < :id)) "
+            + "order by r.created desc, r.id desc")
+    List<RequestDto> findFeedBefore(@Param("requestorId") Long requestorId,
+                                    @Param("created") LocalDateTime created,
+                                    @Param("id") Long id,
+                                    Limit limit);
 }
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.item.ItemDtoRequest;
+
 import java.util.List;
 
 public interface RequestService {
 
     Request addRequest(Long requestorId, RequestDtoInput requestDto);
 
-    List<Request> getRequests(Long requestorId);
+    List<RequestDtoItems> getRequests(Long requestorId);
+
+    Window<RequestDto> getAllRequests(Long requestorId, Integer size, String cursor);
 
-    List<Request> getAllRequests(Long requestorId);
+    RequestDtoItems getRequestById(Long requestId);
 
-    Request getRequestById(Long requestId);
+    List<ItemDtoRequest> getCandidates(Long requestorId, Long requestId);
 
 }
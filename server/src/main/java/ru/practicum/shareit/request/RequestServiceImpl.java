@@ -3,13 +3,27 @@ package ru.practicum.shareit.request;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemDtoRequest;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.RequestedItem;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangeCounter;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -18,6 +32,12 @@ public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchIndex requestMatchIndex;
+    private final UserChangeCounter userChangeCounter;
+
+    @Value("${shareit.request.max-page-size}")
+    private int maxPageSize;
 
     /**
      * Добавляет новый запрос в базу данных.
@@ -42,67 +62,116 @@ public class RequestServiceImpl implements RequestService {
         request.setRequestor(requestor);
         request.setCreated(LocalDateTime.now());
         request = requestRepository.save(request);
+        requestMatchIndex.addRequest(request);
+        userChangeCounter.touch(requestorId);
         log.info("Запрос [ {} ] добавлен в БД.",request);
         return request;
     }
 
     /**
      * Возвращает список запросов, созданных определенным пользователем, отсортированный по дате создания в обратном порядке.
+     * Запросы читаются проекцией, а вещи, созданные в ответ на них, вместе с владельцами загружаются
+     * одним общим запросом для всего списка.
      *
      * @param requestorId идентификатор пользователя, чьи запросы нужно получить
-     * @return список запросов, созданных пользователем
+     * @return список запросов, созданных пользователем, с вещами
      */
     @Override
-    public List<Request> getRequests(Long requestorId) {
-        User requestor = new User();
-        requestor = userRepository.findById(requestorId).orElse(null);
-        if (requestor == null) {
-            log.info("Пользователь с id [ {} ] не найден в БД при получении своего списка запросов - вернулся пустой список.", requestorId);
-            return List.of();
-        }
-        List<Request> requests = requestRepository.findAllByRequestorOrderByCreatedDesc(requestor);
+    public List<RequestDtoItems> getRequests(Long requestorId) {
+        List<RequestDto> requests = requestRepository.findAllDtoByRequestorId(requestorId);
         log.info("Список запросов пользователя [ {} ] получен из БД в количестве [ {} ].", requestorId, requests.size());
-        return requests;
+        return withItems(requests);
     }
 
     /**
-     * Возвращает список всех запросов, отсортированных по дате создания в обратном порядке.
-     * Если передан идентификатор пользователя, то возвращаются все запросы,
-     * кроме тех, которые были созданы этим пользователем.
+     * Возвращает страницу запросов других пользователей, отсортированных по дате создания в обратном порядке.
+     * Страница выбирается по ключу (created, id) курсора предыдущей страницы, без OFFSET.
+     * Размер страницы ограничен свойством shareit.request.max-page-size; без размера страницы
+     * возвращаются все запросы (после курсора, если он задан).
      *
-     * @param requestorId идентификатор пользователя, чьи запросы нужно исключить из списка (может быть null)
-     * @return список всех запросов, отсортированных по дате создания в обратном порядке
+     * @param requestorId идентификатор пользователя, чьи запросы нужно исключить из списка
+     * @param size        размер страницы (может быть null)
+     * @param cursor      курсор предыдущей страницы (может быть null для первой страницы)
+     * @return страница запросов в виде DTO, прочитанных из БД проекцией без загрузки сущностей
+     * @throws ValidationException если размер страницы или курсор заданы некорректно
      */
     @Override
-    public List<Request> getAllRequests(Long requestorId) {
-        User requestor = new User();
-        requestor = userRepository.findById(requestorId).orElse(null);
-        if (requestor == null) {
-            List<Request> requests = requestRepository.findAllByOrderByCreatedDesc();
-            log.info("Список доступных запросов получен из БД в количестве [ {} ].", requests.size());
-            return requests;
+    public Window<RequestDto> getAllRequests(Long requestorId, Integer size, String cursor) {
+        if (size != null && size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным.");
         }
-        List<Request> requests = requestRepository.findAllByRequestorNotOrderByCreatedDesc(requestor);
-        log.info("Список доступных запросов ( кроме запросов пользователя [ {} ] ) получен из БД в количестве [ {} ].",
-                requestorId, requests.size());
-        return requests;
+        int limit = size == null ? Integer.MAX_VALUE : Math.min(size, maxPageSize);
+        Limit rowLimit = size == null ? Limit.unlimited() : Limit.of(limit + 1);
+        List<RequestDto> rows;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = requestRepository.findFeedBefore(requestorId, after.key(), after.id(), rowLimit);
+        } else {
+            rows = requestRepository.findFeed(requestorId, rowLimit);
+        }
+        Window<RequestDto> page = KeysetCursor.window(rows, limit,
+                request -> new KeysetCursor(request.getCreated(), request.getId()));
+        log.info("Получена страница запросов ( кроме запросов пользователя [ {} ] ) : [ {} ].",
+                requestorId, page.size());
+        return page;
     }
 
     /**
      * Возвращает запрос по его идентификатору.
      *
      * @param requestId идентификатор запроса
-     * @return запрос с указанным идентификатором
+     * @return запрос с указанным идентификатором и вещами, созданными в ответ на него
      * @throws NotFoundException если запрос с указанным идентификатором не найден в базе данных
      */
     @Override
-    public Request getRequestById(Long requestId) {
-        Request request = requestRepository.findById(requestId).orElse(null);
+    public RequestDtoItems getRequestById(Long requestId) {
+        RequestDto request = requestRepository.findDtoById(requestId).orElse(null);
         if (request == null) {
             String error = "Запрос с id [ " + requestId + " ] не найден в БД при получении.";
             log.info(error);
             throw new NotFoundException(error);
         }
-        return request;
+        return withItems(List.of(request)).getFirst();
+    }
+
+    /**
+     * Возвращает вещи, добавленные без указания запроса, но подходящие под его описание.
+     * Кандидаты берутся из индекса открытых запросов, из БД читаются только их краткие данные.
+     *
+     * @param requestorId идентификатор автора запроса
+     * @param requestId   идентификатор запроса
+     * @return доступные вещи-кандидаты, от добавленных позже к добавленным раньше
+     * @throws NotFoundException если запрос с указанным идентификатором не найден в базе данных
+     *                           или создан другим пользователем
+     */
+    @Override
+    public List<ItemDtoRequest> getCandidates(Long requestorId, Long requestId) {
+        if (!requestRepository.existsByIdAndRequestorId(requestId, requestorId)) {
+            String error = "Запрос с id [ " + requestId + " ] пользователя с id [ " + requestorId
+                    + " ] не найден в БД при получении вещей-кандидатов.";
+            log.info(error);
+            throw new NotFoundException(error);
+        }
+        List<Long> ids = requestMatchIndex.candidates(requestId);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemDtoRequest> items = new HashMap<>();
+        itemRepository.findAllAvailableForRequest(ids).forEach(item -> items.put(item.getIdItem(), item));
+        log.info("Для запроса [ {} ] найдено вещей-кандидатов [ {} ].", requestId, items.size());
+        return ids.stream().map(items::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<RequestDtoItems> withItems(List<RequestDto> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemDtoRequest>> items = new HashMap<>();
+        for (RequestedItem item : itemRepository.findAllRequestedItems(requests.stream().map(RequestDto::getId).toList())) {
+            items.computeIfAbsent(item.requestId(), id -> new ArrayList<>()).add(ItemMapper.toItemDtoRequest(item));
+        }
+        return requests.stream()
+                .map(request -> RequestMapper.toRequestDtoItems(request, items.getOrDefault(request.getId(), List.of())))
+                .toList();
     }
 }
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики изменений данных, видимых пользователю в списках его вещей, запросов и бронирований его вещей.
+ * Счётчик пользователя увеличивается после фиксации транзакции, изменившей эти данные, а общий счётчик —
+ * после изменений, затрагивающих данные многих пользователей (изменение и удаление пользователя).
+ * Из счётчиков, ID пользователя, пути ресурса и всех параметров запроса строится ETag, поэтому
+ * условный GET с заголовком If-None-Match отвечает 304 без обращения к БД и сериализации ответа,
+ * а тег одной страницы или выборки не подходит для другой. Значение счётчика читается до чтения данных,
+ * поэтому ответ не может получить ETag более новый, чем его содержимое.
+ */
+@Component
+public class UserChangeCounter {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong global = new AtomicLong();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Слабый ETag текущей версии данных пользователя для запрошенного ресурса.
+     *
+     * @param userId  ID пользователя.
+     * @param request запрос: путь и параметры входят в тег.
+     */
+    public String etag(Long userId, WebRequest request) {
+        return etag(userId, request, Map.of());
+    }
+
+    /**
+     * Слабый ETag текущей версии данных пользователя для запрошенного ресурса с нормализованными
+     * значениями части параметров: они входят в тег вместо переданных в запросе.
+     *
+     * @param userId     ID пользователя.
+     * @param request    запрос: путь и остальные параметры входят в тег.
+     * @param parameters нормализованные значения параметров.
+     */
+    public String etag(Long userId, WebRequest request, Map<String, String> parameters) {
+        long common = global.get();
+        AtomicLong version = versions.get(userId);
+        return "W/\"" + instance + "-" + common + "-" + (version == null ? 0 : version.get()) + "-"
+                + resource(userId, request, parameters) + "\"";
+    }
+
+    /**
+     * Учесть изменение данных пользователя после фиксации текущей транзакции.
+     *
+     * @param userId ID пользователя.
+     */
+    public void touch(Long userId) {
+        if (userId != null) {
+            TransactionHooks.afterCommit(() -> versions.computeIfAbsent(userId, id -> new AtomicLong())
+                    .incrementAndGet());
+        }
+    }
+
+    /**
+     * Учесть изменение данных всех пользователей после фиксации текущей транзакции.
+     */
+    public void touchAll() {
+        TransactionHooks.afterCommit(global::incrementAndGet);
+    }
+
+    private static String resource(Long userId, WebRequest request, Map<String, String> parameters) {
+        StringBuilder key = new StringBuilder().append(userId).append(' ').append(request.getDescription(false));
+        Map<String, String> sorted = new TreeMap<>();
+        request.getParameterMap().forEach((name, values) -> sorted.put(name, String.join(",", values)));
+        sorted.putAll(parameters);
+        sorted.forEach((name, value) -> key.append('&').append(name).append('=').append(value));
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,8 +4,16 @@ import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.ItemBookingIndex;
 import ru.practicum.shareit.exception.DataConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemSearch;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.item.ItemSearchDocument;
+import ru.practicum.shareit.item.ItemSuggestIndex;
+import ru.practicum.shareit.item.ItemViewCache;
+import ru.practicum.shareit.request.RequestMatchIndex;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,9 +23,26 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemBookingIndex itemBookingIndex;
+    private final ItemSearch itemSearch;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCache itemViewCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final RequestMatchIndex requestMatchIndex;
+    private final UserChangeCounter userChangeCounter;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ItemBookingIndex itemBookingIndex,
+                           ItemSearch itemSearch, ItemSearchCache itemSearchCache, ItemViewCache itemViewCache,
+                           ItemSuggestIndex itemSuggestIndex, RequestMatchIndex requestMatchIndex,
+                           UserChangeCounter userChangeCounter) {
         this.userRepository = userRepository;
+        this.itemBookingIndex = itemBookingIndex;
+        this.itemSearch = itemSearch;
+        this.itemSearchCache = itemSearchCache;
+        this.itemViewCache = itemViewCache;
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.requestMatchIndex = requestMatchIndex;
+        this.userChangeCounter = userChangeCounter;
     }
 
     /**
@@ -77,6 +102,8 @@ public class UserServiceImpl implements UserService {
         }
         User newUser = UserMapper.toUser(userDto);
         userRepository.save(newUser);
+        itemViewCache.evictAll();
+        userChangeCounter.touchAll();
         log.info("Обновлен пользователь [ {} ]", newUser);
         return newUser;
     }
@@ -128,7 +155,17 @@ public class UserServiceImpl implements UserService {
             log.info(error);
             throw new NotFoundException(error);
         }
+        for (Item item : oldUser.get().getItems()) {
+            itemSearch.remove(item.getId());
+            itemSuggestIndex.remove(item.getId());
+            requestMatchIndex.removeItem(item);
+            itemSearchCache.invalidate(ItemSearchDocument.of(item), null);
+        }
         userRepository.delete(oldUser.get());
+        requestMatchIndex.removeRequestor(idUser);
+        itemBookingIndex.evictAll();
+        itemViewCache.evictAll();
+        userChangeCounter.touchAll();
         log.info("По id [ {} ] успешно удален пользователь.", idUser);
     }
 
@@ -0,0 +1,22 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[]') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_idx ON bookings (item_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A')
+        || setweight(to_tsvector('russian', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS items_search_vector_idx ON items USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops);
@@ -3,6 +3,7 @@ DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
+DROP SEQUENCE IF EXISTS items_seq;
 
 CREATE TABLE IF NOT EXISTS users (
                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -17,13 +18,18 @@ CREATE TABLE IF NOT EXISTS requests (
                           created TIMESTAMP WITHOUT TIME ZONE DEFAULT (now())
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       id BIGINT PRIMARY KEY,
                        name VARCHAR(100),
                        description VARCHAR(250),
                        is_available BOOL DEFAULT FALSE,
                        owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
-                       request_id BIGINT DEFAULT NULL REFERENCES requests (id) ON DELETE SET NULL ON UPDATE CASCADE
+                       request_id BIGINT DEFAULT NULL REFERENCES requests (id) ON DELETE SET NULL ON UPDATE CASCADE,
+                       last_booking_id BIGINT DEFAULT NULL,
+                       next_booking_id BIGINT DEFAULT NULL,
+                       comments_count INT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
@@ -35,6 +41,12 @@ CREATE TABLE IF NOT EXISTS bookings (
                           status VARCHAR(10) DEFAULT 'WAITING'
 );
 
+ALTER TABLE items ADD CONSTRAINT items_last_booking_fk
+    FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD CONSTRAINT items_next_booking_fk
+    FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
 CREATE TABLE IF NOT EXISTS comments (
                           id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
                           text VARCHAR(250),
@@ -42,3 +54,19 @@ CREATE TABLE IF NOT EXISTS comments (
                           user_id BIGINT DEFAULT NULL REFERENCES users (id) ON DELETE SET NULL ON UPDATE CASCADE,
                           created TIMESTAMP WITHOUT TIME ZONE DEFAULT (now())
 );
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_booker_end_idx ON bookings (item_id, booker_id, end_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Пакетное подтверждение бронирований: пересечения проверяются и с бронированиями из БД,
+ * и между подтверждениями одного пакета с учётом отклонённых в нём бронирований.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingBatchDecisionTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime start = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.DAYS);
+
+    private User owner;
+    private User booker;
+
+    @Test
+    void overlappingApprovalsInOneBatchKeepOnlyFirst() {
+        createUsers();
+        Item drill = createItem("Дрель");
+        Item saw = createItem("Пила");
+        Booking first = save(drill, start, start.plusDays(2), BookingStatus.REJECTED);
+        Booking second = save(drill, start.plusDays(1), start.plusDays(3), BookingStatus.REJECTED);
+        Booking third = save(saw, start.plusDays(1), start.plusDays(3), BookingStatus.REJECTED);
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookings(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(second.getId(), true),
+                new BookingDecisionDto(third.getId(), true)));
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertNotNull(results.get(1).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(2).getStatus());
+    }
+
+    @Test
+    void bookingRejectedInBatchDoesNotBlockApproval() {
+        createUsers();
+        Item drill = createItem("Дрель");
+        Booking first = save(drill, start, start.plusDays(2), BookingStatus.WAITING);
+        Booking second = save(drill, start.plusDays(1), start.plusDays(3), BookingStatus.WAITING);
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookings(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), false),
+                new BookingDecisionDto(second.getId(), true)));
+
+        assertEquals(BookingStatus.REJECTED, results.get(0).getStatus());
+        assertEquals(BookingStatus.APPROVED, results.get(1).getStatus());
+        assertNull(results.get(1).getError());
+    }
+
+    private void createUsers() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        booker = userService.addUser(new UserDto(null, "booker", "booker-" + suffix + "@test.ru", null, null, null));
+    }
+
+    private Item createItem(String name) {
+        return itemService.addItem(owner.getId(), new ItemDtoInput(name, name, true, null));
+    }
+
+    private Booking save(Item item, LocalDateTime from, LocalDateTime to, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, from, to, item, booker, status));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельное создание бронирований одной вещи: строка вещи блокируется на время проверки
+ * пересечений, поэтому из пересекающихся бронирований создаётся ровно одно.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void overlappingBookingsCreatedConcurrentlyKeepOnlyOne() throws Exception {
+        Item item = createItem("overlap");
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+
+        int created = createConcurrently(item, i -> new BookingDtoInput(item.getId(),
+                start.plusHours(i), start.plusDays(1).plusHours(i)));
+
+        assertEquals(1, created);
+        assertEquals(1, bookingRepository.findAllByItem_IdAndStatusIn(item.getId(),
+                ItemBookingIndex.ACTIVE_STATUSES).size());
+    }
+
+    @Test
+    void disjointBookingsCreatedConcurrentlyAreAllKept() throws Exception {
+        Item item = createItem("disjoint");
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+
+        int created = createConcurrently(item, i -> new BookingDtoInput(item.getId(),
+                start.plusDays(2L * i), start.plusDays(2L * i + 1)));
+
+        assertEquals(THREADS, created);
+        assertEquals(THREADS, bookingRepository.findAllByItem_IdAndStatusIn(item.getId(),
+                ItemBookingIndex.ACTIVE_STATUSES).size());
+    }
+
+    private Item createItem(String prefix) {
+        User owner = userService.addUser(new UserDto(null, "owner", prefix + "-owner@test.ru",
+                null, null, null));
+        return itemService.addItem(owner.getId(), new ItemDtoInput("Дрель", "Ударная дрель", true, null));
+    }
+
+    private int createConcurrently(Item item, IntFunction<BookingDtoInput> booking) throws Exception {
+        List<Long> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.addUser(new UserDto(null, "booker", "booker-" + i + "-" + item.getId()
+                    + "@test.ru", null, null, null)).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<Boolean> task = () -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        bookingService.addBooking(bookers.get(index), booking.apply(index));
+                        return true;
+                    } catch (ValidationException ex) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(task));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS));
+            go.countDown();
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    created++;
+                }
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Ограничение bookings_no_overlap из schema-postgresql.sql: пересекающееся активное бронирование,
+ * записанное в обход проверок сервиса, отклоняет сама БД. Тест требует PostgreSQL из настроек
+ * по умолчанию (localhost:5432) и запускается только явно: mvn test -Dshareit.test.postgres=true.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+@EnabledIfSystemProperty(named = "shareit.test.postgres", matches = "true")
+class BookingOverlapConstraintTest {
+
+    private static final String EXCLUSION_VIOLATION_STATE = "23P01";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void overlappingActiveBookingIsRejectedByConstraint() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        User booker = userService.addUser(new UserDto(null, "booker", "booker-" + suffix + "@test.ru", null, null, null));
+        Item item = itemService.addItem(owner.getId(), new ItemDtoInput("Дрель", "Ударная дрель", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.saveAndFlush(new Booking(null, start, start.plusDays(2), item, booker,
+                BookingStatus.APPROVED));
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () ->
+                bookingRepository.saveAndFlush(new Booking(null, start.plusDays(1), start.plusDays(3), item, booker,
+                        BookingStatus.WAITING)));
+
+        assertEquals(EXCLUSION_VIOLATION_STATE, sqlState(ex));
+        bookingRepository.saveAndFlush(new Booking(null, start.plusDays(1), start.plusDays(3), item, booker,
+                BookingStatus.REJECTED));
+    }
+
+    private static String sqlState(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.common.KeysetCursor;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выборка бронирований динамическим запросом по каждому состоянию для арендатора и владельца
+ * и постраничная выборка по курсору.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingSpecificationsTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+    private Booking rejected;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        booker = userService.addUser(new UserDto(null, "booker", "booker-" + suffix + "@test.ru", null, null, null));
+        Item item = itemService.addItem(owner.getId(), new ItemDtoInput("Дрель", "Ударная дрель", true, null));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        past = save(item, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        current = save(item, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        future = save(item, now.plusDays(5), now.plusDays(6), BookingStatus.WAITING);
+        rejected = save(item, now.plusDays(8), now.plusDays(9), BookingStatus.REJECTED);
+    }
+
+    @Test
+    void bookerStates() {
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), past.getId()), byBooker("ALL"));
+        assertEquals(List.of(current.getId()), byBooker("CURRENT"));
+        assertEquals(List.of(past.getId()), byBooker("PAST"));
+        assertEquals(List.of(rejected.getId(), future.getId()), byBooker("FUTURE"));
+        assertEquals(List.of(future.getId()), byBooker("WAITING"));
+        assertEquals(List.of(rejected.getId()), byBooker("REJECTED"));
+    }
+
+    @Test
+    void ownerStates() {
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId(), past.getId()), byOwner("ALL"));
+        assertEquals(List.of(current.getId()), byOwner("CURRENT"));
+        assertEquals(List.of(past.getId()), byOwner("PAST"));
+        assertEquals(List.of(rejected.getId(), future.getId()), byOwner("FUTURE"));
+        assertEquals(List.of(future.getId()), byOwner("WAITING"));
+        assertEquals(List.of(rejected.getId()), byOwner("REJECTED"));
+    }
+
+    @Test
+    void pagesFollowCursor() {
+        var first = bookingService.getByUserId(booker.getId(), "ALL", 0, 3, null);
+        assertTrue(first.hasNext());
+        assertEquals(List.of(rejected.getId(), future.getId(), current.getId()), ids(first.getContent()));
+        String cursor = KeysetCursor.next(first).orElseThrow();
+        var second = bookingService.getByUserId(booker.getId(), "ALL", 0, 3, cursor);
+        assertEquals(List.of(past.getId()), ids(second.getContent()));
+    }
+
+    private Booking save(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+
+    private List<Long> byBooker(String state) {
+        return ids(bookingService.getByUserId(booker.getId(), state, 0, null, null).getContent());
+    }
+
+    private List<Long> byOwner(String state) {
+        return ids(bookingService.getByOwnerId(owner.getId(), state, 0, null, null).getContent());
+    }
+
+    private List<Long> ids(List<BookingDtoOutput> bookings) {
+        return bookings.stream().map(BookingDtoOutput::getId).toList();
+    }
+}
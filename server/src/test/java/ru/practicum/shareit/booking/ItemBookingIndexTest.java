@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка пересечений и свободных промежутков по шкале бронирований вещи, в том числе
+ * с пересекающимися бронированиями, записанными в БД в обход проверок.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemBookingIndexTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingIndex itemBookingIndex;
+
+    private final LocalDateTime start = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.DAYS);
+
+    private User booker;
+    private Item item;
+
+    @Test
+    void neighboursOfLongBookingAreChecked() {
+        createItem();
+        save(start, start.plusYears(1));
+        save(start.plusYears(1).plusDays(2), start.plusYears(1).plusDays(3));
+        itemBookingIndex.evict(item.getId());
+
+        assertTrue(itemBookingIndex.hasOverlap(item.getId(), start.plusMonths(6), start.plusMonths(6).plusDays(1)));
+        assertFalse(itemBookingIndex.hasOverlap(item.getId(), start.plusYears(1).plusDays(1),
+                start.plusYears(1).plusDays(1).plusHours(1)));
+        assertTrue(itemBookingIndex.hasOverlap(item.getId(), start.plusYears(1).plusDays(1),
+                start.plusYears(1).plusDays(2)));
+        assertEquals(List.of(new FreeSlotDto(start.plusYears(1), start.plusYears(1).plusDays(2))),
+                itemBookingIndex.freeSlots(item.getId(), start.plusMonths(6), start.plusYears(1).plusDays(3)));
+    }
+
+    @Test
+    void overlappingRowsFromDatabaseAreKept() {
+        createItem();
+        Booking first = save(start, start.plusDays(4));
+        save(start.plusDays(2), start.plusDays(6));
+        itemBookingIndex.evict(item.getId());
+
+        assertTrue(itemBookingIndex.hasOverlap(item.getId(), start.plusDays(5), start.plusDays(5).plusHours(1)));
+        assertEquals(List.of(new FreeSlotDto(start.minusDays(1), start), new FreeSlotDto(start.plusDays(6),
+                start.plusDays(7))), itemBookingIndex.freeSlots(item.getId(), start.minusDays(1), start.plusDays(7)));
+
+        first.setStatus(BookingStatus.REJECTED);
+        itemBookingIndex.update(bookingRepository.save(first));
+
+        assertFalse(itemBookingIndex.hasOverlap(item.getId(), start.plusDays(1), start.plusDays(1).plusHours(1)));
+        assertTrue(itemBookingIndex.hasOverlap(item.getId(), start.plusDays(3), start.plusDays(3).plusHours(1)));
+    }
+
+    private void createItem() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        booker = userService.addUser(new UserDto(null, "booker", "booker-" + suffix + "@test.ru", null, null, null));
+        item = itemService.addItem(owner.getId(), new ItemDtoInput("Дрель", "Ударная дрель", true, null));
+    }
+
+    private Booking save(LocalDateTime from, LocalDateTime to) {
+        return bookingRepository.save(new Booking(null, from, to, item, booker, BookingStatus.APPROVED));
+    }
+}
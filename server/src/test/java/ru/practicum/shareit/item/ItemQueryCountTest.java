@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingDtoInput;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.NearestBookingTracker;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Количество SQL-запросов при построении списка вещей хозяина не зависит от количества вещей:
+ * последние комментарии всех вещей читаются одним запросом, а связи вещей догружаются пакетами.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemQueryCountTest {
+
+    private static final int ITEMS = 12;
+    private static final long MAX_STATEMENTS = 4;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private NearestBookingTracker nearestBookingTracker;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void ownerItemListUsesBoundedNumberOfStatements() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        User booker = userService.addUser(new UserDto(null, "booker", "booker-" + suffix + "@test.ru", null, null, null));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemService.addItem(owner.getId(), new ItemDtoInput("Вещь " + i, "Описание", true, null));
+            bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED));
+            itemService.saveComment(booker.getId(), item.getId(), new CommentDto(null, "Отзыв " + i, null, null, null));
+            bookingService.addBooking(booker.getId(), new BookingDtoInput(item.getId(), now.plusDays(1),
+                    now.plusDays(2)));
+        }
+        nearestBookingTracker.load();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        List<ItemDtoOutput> items = transaction.execute(status -> {
+            List<Item> owned = itemService.getAllItems(owner.getId());
+            Map<Long, List<Comment>> comments = itemService.getLatestComments(owned.stream().map(Item::getId).toList());
+            return owned.stream().map(item -> ItemMapper.toItemDtoOutput(item, owner.getId(),
+                    comments.getOrDefault(item.getId(), List.of()))).toList();
+        });
+        long statements = statistics.getPrepareStatementCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(ITEMS, items.size());
+        items.forEach(item -> {
+            assertEquals(1, item.getComments().size());
+            assertEquals(1, item.getCommentsCount());
+            assertTrue(item.getLastBooking() != null && item.getNextBooking() != null);
+        });
+        assertTrue(statements <= MAX_STATEMENTS, "Выполнено запросов: " + statements);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingDtoInput;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Соседи, обновлённые на месте после новых бронирований, совпадают с соседями,
+ * построенными полным перестроением матрицы.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSimilarityIndexTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    private LocalDateTime start = LocalDateTime.now().plusDays(100).truncatedTo(ChronoUnit.SECONDS);
+
+    @Test
+    void incrementalUpdatesMatchRebuild() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        User first = userService.addUser(new UserDto(null, "first", "first-" + suffix + "@test.ru", null, null, null));
+        User second = userService.addUser(new UserDto(null, "second", "second-" + suffix + "@test.ru",
+                null, null, null));
+        Long drill = itemService.addItem(owner.getId(), new ItemDtoInput("Дрель", "Дрель", true, null)).getId();
+        Long bits = itemService.addItem(owner.getId(), new ItemDtoInput("Свёрла", "Свёрла", true, null)).getId();
+        Long saw = itemService.addItem(owner.getId(), new ItemDtoInput("Пила", "Пила", true, null)).getId();
+
+        book(first, drill);
+        book(first, bits);
+        book(second, saw);
+        book(second, drill);
+        book(second, bits);
+        book(first, drill);
+
+        assertEquals(List.of(bits, saw), itemSimilarityIndex.similar(drill, 10));
+        assertEquals(List.of(drill, saw), itemSimilarityIndex.similar(bits, 10));
+        assertEquals(List.of(drill, bits), itemSimilarityIndex.similar(saw, 10));
+        assertEquals(List.of(bits), itemSimilarityIndex.similar(drill, 1));
+
+        itemSimilarityIndex.rebuild();
+
+        assertEquals(List.of(bits, saw), itemSimilarityIndex.similar(drill, 10));
+        assertEquals(List.of(drill, saw), itemSimilarityIndex.similar(bits, 10));
+        assertEquals(List.of(drill, bits), itemSimilarityIndex.similar(saw, 10));
+    }
+
+    private void book(User booker, Long itemId) {
+        start = start.plusDays(2);
+        bookingService.addBooking(booker.getId(), new BookingDtoInput(itemId, start, start.plusDays(1)));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemDtoInput;
+import ru.practicum.shareit.item.ItemDtoRequest;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Кандидаты открытого запроса пересчитываются при изменении вещи, снимаются при закрытии запроса
+ * и снова подбираются после удаления вещи, закрывшей запрос. Кандидаты доступны только автору запроса.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RequestMatchIndexTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private RequestMatchIndex requestMatchIndex;
+
+    @Test
+    void candidatesFollowItemAndRequestChanges() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User requestor = userService.addUser(new UserDto(null, "requestor", "requestor-" + suffix + "@test.ru",
+                null, null, null));
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        Long requestId = requestService.addRequest(requestor.getId(),
+                new RequestDtoInput("Нужен перфоратор " + suffix)).getId();
+
+        Long drill = itemService.addItem(owner.getId(), new ItemDtoInput("Перфоратор", "Мощный", true, null)).getId();
+        assertEquals(List.of(drill), requestMatchIndex.candidates(requestId));
+
+        itemService.updateItem(owner.getId(), drill, new ItemDtoInput("Пила", "Ручная", null, null));
+        assertEquals(List.of(), requestMatchIndex.candidates(requestId));
+
+        itemService.updateItem(owner.getId(), drill, new ItemDtoInput("Перфоратор", null, null, null));
+        assertEquals(List.of(drill), requestMatchIndex.candidates(requestId));
+
+        Long answer = itemService.addItem(owner.getId(), new ItemDtoInput("Бур", "Бур", true, requestId)).getId();
+        assertEquals(List.of(), requestMatchIndex.candidates(requestId));
+        itemService.addItem(owner.getId(), new ItemDtoInput("Перфоратор", "Ещё один", true, null));
+        assertEquals(List.of(), requestMatchIndex.candidates(requestId));
+
+        itemService.removeItem(owner.getId(), answer);
+        Long another = itemService.addItem(owner.getId(), new ItemDtoInput("Перфоратор", "Новый", true, null)).getId();
+        assertEquals(List.of(another), requestMatchIndex.candidates(requestId));
+    }
+
+    @Test
+    void candidatesAreVisibleOnlyToRequestor() {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        User requestor = userService.addUser(new UserDto(null, "requestor", "requestor-" + suffix + "@test.ru",
+                null, null, null));
+        User owner = userService.addUser(new UserDto(null, "owner", "owner-" + suffix + "@test.ru", null, null, null));
+        Long requestId = requestService.addRequest(requestor.getId(),
+                new RequestDtoInput("Нужна стремянка " + suffix)).getId();
+        Long ladder = itemService.addItem(owner.getId(), new ItemDtoInput("Стремянка", "Высокая", true, null)).getId();
+
+        assertEquals(List.of(ladder), requestService.getCandidates(requestor.getId(), requestId).stream()
+                .map(ItemDtoRequest::getIdItem).toList());
+        assertThrows(NotFoundException.class, () -> requestService.getCandidates(owner.getId(), requestId));
+    }
+}